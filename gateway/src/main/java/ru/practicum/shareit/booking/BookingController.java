@@ -1,11 +1,11 @@
 package ru.practicum.shareit.booking;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.client.BookingClient;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
@@ -26,13 +26,11 @@ public class BookingController {
 
     private final BookingClient client;
 
-    private final ObjectMapper objectMapper;
-
     @PostMapping
     public Mono<ResponseEntity<String>> create(
             @RequestHeader("X-Sharer-User-Id") @NotNull Long userId,
-            @Valid @RequestBody BookingInputDto bookingDto) throws JsonProcessingException {
-        return client.post("/", userId, objectMapper.writeValueAsString(bookingDto));
+            @Valid @RequestBody BookingInputDto bookingDto) {
+        return client.post("/", userId, bookingDto);
     }
 
     @GetMapping("{bookingId}")
@@ -47,28 +45,30 @@ public class BookingController {
             @RequestHeader("X-Sharer-User-Id") @NotNull Long userId,
             @PathVariable @NotNull Long bookingId,
             @RequestParam @NotNull Boolean approved) {
-        return client.patch(String.format("/%d", bookingId), userId, Map.of("approved", approved));
+        return client.approve(bookingId, userId, approved);
     }
 
     @GetMapping
-    public Mono<ResponseEntity<String>> getAllByBooker(
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAllByBooker(
             @RequestHeader("X-Sharer-User-Id") @NotNull Long userId,
             @RequestParam(defaultValue = "ALL") String state,
             @RequestParam(name = "from", required = false) @Min(0) Integer from,
-            @RequestParam(name = "size", required = false) @Min(0) Integer size) {
-        Map<String, Object> params = getValidatedPaginationParameters(from, size);
+            @RequestParam(name = "size", required = false) @Min(0) Integer size,
+            @RequestParam(name = "after", required = false) String after) {
+        Map<String, Object> params = getValidatedPaginationParameters(from, size, after);
         params.put("state", validateAndGetState(state).name());
-        return client.get("/", userId, params);
+        return client.stream("/", userId, params);
     }
 
     @GetMapping("owner")
-    public Mono<ResponseEntity<String>> getAllByItemsOwner(
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAllByItemsOwner(
             @RequestHeader("X-Sharer-User-Id") @NotNull Long userId,
             @RequestParam(defaultValue = "ALL") String state,
             @RequestParam(name = "from", required = false) Integer from,
-            @RequestParam(name = "size", required = false) Integer size) {
-        Map<String, Object> params = getValidatedPaginationParameters(from, size);
+            @RequestParam(name = "size", required = false) Integer size,
+            @RequestParam(name = "after", required = false) String after) {
+        Map<String, Object> params = getValidatedPaginationParameters(from, size, after);
         params.put("state", validateAndGetState(state).name());
-        return client.get("/owner", userId, params);
+        return client.stream("/owner", userId, params);
     }
 }
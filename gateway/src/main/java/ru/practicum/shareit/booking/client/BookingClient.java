@@ -1,11 +1,19 @@
 package ru.practicum.shareit.booking.client;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.SingleFlight;
+import ru.practicum.shareit.item.client.ItemClient;
 
 import java.util.Map;
 
@@ -13,11 +21,15 @@ import java.util.Map;
 public class BookingClient extends BaseClient {
     public static final String API_PREFIX = "/bookings";
 
-    public BookingClient(@Value("${shareit-server.url}") String baseUrl, WebClient.Builder webClientBuilder) {
-        super(webClientBuilder.baseUrl(baseUrl + API_PREFIX).build());
+    private final ObjectMapper objectMapper;
+
+    public BookingClient(@Value("${shareit-server.url}") String baseUrl, WebClient.Builder webClientBuilder,
+                         ResponseCache responseCache, SingleFlight singleFlight, ObjectMapper objectMapper) {
+        super(webClientBuilder.baseUrl(baseUrl + API_PREFIX).build(), API_PREFIX, responseCache, singleFlight);
+        this.objectMapper = objectMapper;
     }
 
-    public Mono<ResponseEntity<String>> post(String path, Long userId, String body) {
+    public Mono<ResponseEntity<String>> post(String path, Long userId, Object body) {
         return super.post(path, userId, null, body);
     }
 
@@ -25,7 +37,37 @@ public class BookingClient extends BaseClient {
         return super.get(path, userId, params);
     }
 
-    public Mono<ResponseEntity<String>> patch(String path, Long userId, Map<String, Object> params) {
-        return super.patch(path, userId, params);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> stream(String path, Long userId, Map<String, Object> params) {
+        return super.stream(path, userId, params);
+    }
+
+    /**
+     * An approved booking shows up as the last or next booking of its item, so the cached item is evicted.
+     * Every cached item is evicted when the response doesn't name the item.
+     */
+    public Mono<ResponseEntity<String>> approve(long bookingId, Long userId, Boolean approved) {
+        return patch(String.format("/%d", bookingId), userId, Map.of("approved", approved))
+                .doOnNext(response -> {
+                    if (response.getStatusCode().is2xxSuccessful()) {
+                        Long itemId = getItemId(response.getBody());
+                        if (itemId != null) {
+                            evict(ItemClient.itemPath(itemId));
+                        } else {
+                            evictPrefix(ItemClient.API_PREFIX + "/");
+                        }
+                    }
+                });
+    }
+
+    private Long getItemId(String booking) {
+        if (booking == null) {
+            return null;
+        }
+        try {
+            JsonNode id = objectMapper.readTree(booking).path("item").path("id");
+            return id.canConvertToLong() ? id.longValue() : null;
+        } catch (JsonProcessingException e) {
+            return null;
+        }
     }
 }
@@ -1,34 +1,111 @@
 package ru.practicum.shareit.client;
 
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 public class BaseClient {
     public static final String USER_ID_HEADER_NAME = "X-Sharer-User-Id";
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive", "proxy-authenticate",
+            "proxy-authorization", "te", "trailer", "transfer-encoding", "upgrade");
     private final WebClient webClient;
+    private final String apiPrefix;
+    private final ResponseCache responseCache;
+    private final SingleFlight singleFlight;
 
-    public BaseClient(WebClient webClient) {
+    public BaseClient(WebClient webClient, String apiPrefix, ResponseCache responseCache, SingleFlight singleFlight) {
         this.webClient = webClient;
+        this.apiPrefix = apiPrefix;
+        this.responseCache = responseCache;
+        this.singleFlight = singleFlight;
     }
 
     protected Mono<ResponseEntity<String>> get(String path, Long userId, Map<String, Object> parameters) {
-        return makeAndFetch(HttpMethod.GET, path, userId, mapToMultiValueMap(parameters));
+        return getShared(path, userId, parameters, null);
     }
 
-    protected Mono<ResponseEntity<String>> post(String path, Long userId, Map<String, Object> parameters, String body) {
+    /**
+     * Serves the response from the cache for the ttl, then revalidates it with the server.
+     */
+    protected Mono<ResponseEntity<String>> getCached(String path, Long userId, Map<String, Object> parameters,
+                                                     Duration ttl) {
+        return responseCache.get(apiPrefix + path, toQuery(parameters), userId, ttl,
+                etag -> getShared(path, userId, parameters, etag));
+    }
+
+    /**
+     * Identical GETs in flight at the same moment are sent to the server once and share its response.
+     */
+    private Mono<ResponseEntity<String>> getShared(String path, Long userId, Map<String, Object> parameters,
+                                                   String etag) {
+        List<String> key = List.of(apiPrefix + path, toQuery(parameters), String.valueOf(userId),
+                etag == null ? "" : etag);
+        return singleFlight.execute(key, () -> {
+            WebClient.RequestBodySpec request = request(HttpMethod.GET, path, userId, mapToMultiValueMap(parameters));
+            if (etag != null) {
+                request.ifNoneMatch(etag);
+            }
+            return fetch(request);
+        });
+    }
+
+    /**
+     * Evicts the cached responses of the given paths, including the api prefix, once the write succeeded.
+     */
+    protected Mono<ResponseEntity<String>> evictOnSuccess(Mono<ResponseEntity<String>> response, String... paths) {
+        return response.doOnNext(entity -> {
+            if (entity.getStatusCode().is2xxSuccessful()) {
+                evict(paths);
+            }
+        });
+    }
+
+    protected void evict(String... paths) {
+        for (String path : paths) {
+            responseCache.evict(path);
+        }
+    }
+
+    protected void evictPrefix(String prefix) {
+        responseCache.evictPrefix(prefix);
+    }
+
+    /**
+     * Passes the server response through as it arrives, without collecting or decoding the body,
+     * so long lists are proxied in constant memory. Error responses are passed through the same way.
+     */
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> stream(String path, Long userId, Map<String, Object> parameters) {
+        return request(HttpMethod.GET, path, userId, mapToMultiValueMap(parameters))
+                .retrieve()
+                .onStatus(HttpStatus::isError, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .map(entity -> ResponseEntity
+                        .status(entity.getStatusCodeValue())
+                        .headers(headers -> copyResponseHeaders(entity.getHeaders(), headers))
+                        .body(entity.getBody()));
+    }
+
+    protected Mono<ResponseEntity<String>> post(String path, Long userId, Map<String, Object> parameters, Object body) {
         return makeAndFetch(HttpMethod.POST, path, userId, mapToMultiValueMap(parameters), body);
     }
 
-    protected Mono<ResponseEntity<String>> patch(String path, Long userId, Map<String, Object> parameters, String body) {
+    protected Mono<ResponseEntity<String>> patch(String path, Long userId, Map<String, Object> parameters, Object body) {
         return makeAndFetch(HttpMethod.PATCH, path, userId, mapToMultiValueMap(parameters), body);
     }
 
@@ -40,41 +117,69 @@ public class BaseClient {
         return makeAndFetch(HttpMethod.DELETE, path, userId, mapToMultiValueMap(parameters));
     }
 
+    /**
+     * The validated body is encoded by the client codecs directly into the request buffers.
+     */
     private Mono<ResponseEntity<String>> makeAndFetch(HttpMethod method, String path, Long userId,
-                                                      MultiValueMap<String, String> parameters, String body) {
-        return webClient
-                .method(method)
-                .uri(uriBuilder -> uriBuilder.path(path).queryParams(parameters).build())
-                .accept(MediaType.APPLICATION_JSON)
-                .contentType(MediaType.APPLICATION_JSON)
-                .header(USER_ID_HEADER_NAME, String.valueOf(userId))
-                .body(Mono.just(body), String.class)
-                .retrieve()
-                .toEntity(String.class)
-                .onErrorResume(WebClientResponseException.class,
-                        ex -> Mono.just(ResponseEntity
-                                .status(ex.getStatusCode())
-                                .body(ex.getResponseBodyAsString()))
-                );
+                                                      MultiValueMap<String, String> parameters, Object body) {
+        return fetch(request(method, path, userId, parameters).bodyValue(body));
     }
 
     private Mono<ResponseEntity<String>> makeAndFetch(HttpMethod method, String path, Long userId,
                                                       MultiValueMap<String, String> parameters) {
+        return fetch(request(method, path, userId, parameters));
+    }
+
+    private WebClient.RequestBodySpec request(HttpMethod method, String path, Long userId,
+                                              MultiValueMap<String, String> parameters) {
         return webClient
                 .method(method)
                 .uri(uriBuilder -> uriBuilder.path(path).queryParams(parameters).build())
                 .accept(MediaType.APPLICATION_JSON)
                 .contentType(MediaType.APPLICATION_JSON)
-                .header(USER_ID_HEADER_NAME, String.valueOf(userId))
+                .header(USER_ID_HEADER_NAME, String.valueOf(userId));
+    }
+
+    private Mono<ResponseEntity<String>> fetch(WebClient.RequestHeadersSpec<?> request) {
+        return request
                 .retrieve()
                 .toEntity(String.class)
+                .map(entity -> ResponseEntity
+                        .status(entity.getStatusCodeValue())
+                        .headers(headers -> copyBufferedResponseHeaders(entity.getHeaders(), headers))
+                        .body(entity.getBody()))
                 .onErrorResume(WebClientResponseException.class,
                         ex -> Mono.just(ResponseEntity
                                 .status(ex.getStatusCode())
+                                .headers(headers -> copyBufferedResponseHeaders(ex.getHeaders(), headers))
                                 .body(ex.getResponseBodyAsString()))
                 );
     }
 
+    /**
+     * Passes on every server header but the hop-by-hop ones, which only describe the connection to the server.
+     * With the ETag passed on, WebFlux answers 304 itself to a client that already has the body.
+     */
+    private static void copyResponseHeaders(HttpHeaders from, HttpHeaders to) {
+        from.forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase())) {
+                to.addAll(name, values);
+            }
+        });
+    }
+
+    /**
+     * A buffered body is encoded again by WebFlux, which sets its own length.
+     */
+    private static void copyBufferedResponseHeaders(HttpHeaders from, HttpHeaders to) {
+        copyResponseHeaders(from, to);
+        to.remove(HttpHeaders.CONTENT_LENGTH);
+    }
+
+    private static String toQuery(Map<String, Object> parameters) {
+        return parameters == null ? "" : new TreeMap<>(parameters).toString();
+    }
+
     private MultiValueMap<String, String> mapToMultiValueMap(Map<String, Object> map) {
         if (map == null) {
             return new LinkedMultiValueMap<>();
@@ -0,0 +1,166 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of server responses to GET requests, keyed by path, query and user. A fresh entry is served
+ * without asking the server, a stale one is revalidated with its ETag and served again on 304.
+ * The least recently used entry is dropped when the cache is full. Writes evict the paths they change.
+ * Hits, misses and size are published as the {@code cache.*} meters of the responses cache.
+ */
+@Component
+public class ResponseCache implements MeterBinder {
+
+    private static final String CACHE_NAME = "responses";
+
+    private final int maxSize;
+
+    private final Clock clock;
+
+    private final Map<List<String>, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * Bumped by every eviction, a response fetched before one may be stale and isn't stored.
+     */
+    private long generation;
+
+    private final LongAdder misses = new LongAdder();
+
+    @Autowired
+    public ResponseCache(@Value("${shareit.cache.max-size:10000}") int maxSize) {
+        this(maxSize, Clock.systemUTC());
+    }
+
+    ResponseCache(int maxSize, Clock clock) {
+        this.maxSize = maxSize;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<String>, Entry> eldest) {
+                return size() > ResponseCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached response while it is fresh, otherwise fetches it, passing the ETag of the stale entry
+     * or null. Only 200 responses are cached.
+     */
+    public Mono<ResponseEntity<String>> get(String path, String query, Long userId, Duration ttl,
+                                            Function<String, Mono<ResponseEntity<String>>> fetch) {
+        List<String> key = List.of(path, query, String.valueOf(userId));
+        Entry entry;
+        long fetchedGeneration;
+        synchronized (entries) {
+            entry = entries.get(key);
+            fetchedGeneration = generation;
+        }
+        if (entry != null && entry.expiresAt > clock.millis()) {
+            hits.increment();
+            return Mono.just(entry.response);
+        }
+        misses.increment();
+        String etag = entry == null ? null : entry.response.getHeaders().getETag();
+        return fetch.apply(etag)
+                .map(response -> {
+                    if (response.getStatusCode() == HttpStatus.NOT_MODIFIED && etag != null) {
+                        put(key, entry.response, ttl, fetchedGeneration);
+                        return entry.response;
+                    }
+                    if (response.getStatusCode() == HttpStatus.OK) {
+                        put(key, response, ttl, fetchedGeneration);
+                    }
+                    return response;
+                });
+    }
+
+    /**
+     * Drops the responses of the path for every query and user.
+     */
+    public void evict(String path) {
+        synchronized (entries) {
+            generation++;
+            entries.keySet().removeIf(key -> key.get(0).equals(path));
+        }
+    }
+
+    /**
+     * Drops the responses of every path that starts with the prefix, for writes that can't name the paths they change.
+     */
+    public void evictPrefix(String prefix) {
+        synchronized (entries) {
+            generation++;
+            entries.keySet().removeIf(key -> key.get(0).startsWith(prefix));
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", this, ResponseCache::getHits)
+                .tags("cache", CACHE_NAME, "result", "hit")
+                .description("The number of times cache lookup methods have returned a cached value.")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", this, ResponseCache::getMisses)
+                .tags("cache", CACHE_NAME, "result", "miss")
+                .description("The number of times cache lookup methods have returned an uncached value.")
+                .register(registry);
+        Gauge.builder("cache.size", this, ResponseCache::size)
+                .tags("cache", CACHE_NAME)
+                .description("The number of entries in this cache.")
+                .register(registry);
+    }
+
+    private void put(List<String> key, ResponseEntity<String> response, Duration ttl, long fetchedGeneration) {
+        Entry entry = new Entry(response, clock.millis() + ttl.toMillis());
+        synchronized (entries) {
+            if (generation == fetchedGeneration) {
+                entries.put(key, entry);
+            }
+        }
+    }
+
+    private static class Entry {
+
+        private final ResponseEntity<String> response;
+
+        private final long expiresAt;
+
+        Entry(ResponseEntity<String> response, long expiresAt) {
+            this.response = response;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * One connection pool to shareit-server shared by every client. The pool is bounded in sockets and in waiting
+ * requests, a request that can't get a connection in time fails instead of queueing. With {@code h2c} requests
+ * are multiplexed over cleartext HTTP/2 connections, the server has to accept HTTP/2 with prior knowledge.
+ */
+@Configuration
+public class ServerClientConfiguration {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider serverConnectionProvider(
+            @Value("${shareit-server.client.max-connections:500}") int maxConnections,
+            @Value("${shareit-server.client.pending-acquire-max-count:1000}") int pendingAcquireMaxCount,
+            @Value("${shareit-server.client.pending-acquire-timeout:PT5S}") Duration pendingAcquireTimeout,
+            @Value("${shareit-server.client.max-idle-time:PT30S}") Duration maxIdleTime,
+            @Value("${shareit-server.client.evict-in-background:PT30S}") Duration evictInBackground) {
+        return ConnectionProvider.builder("shareit-server")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .evictInBackground(evictInBackground)
+                .metrics(true)
+                .build();
+    }
+
+    /**
+     * Picked up by the auto-configured {@code WebClient.Builder} the clients are built from.
+     */
+    @Bean
+    public ReactorClientHttpConnector serverClientHttpConnector(
+            ConnectionProvider serverConnectionProvider,
+            @Value("${shareit-server.client.connect-timeout:PT2S}") Duration connectTimeout,
+            @Value("${shareit-server.client.response-timeout:PT10S}") Duration responseTimeout,
+            @Value("${shareit-server.client.h2c:false}") boolean h2c) {
+        HttpClient httpClient = HttpClient.create(serverConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout)
+                .protocol(h2c ? HttpProtocol.H2C : HttpProtocol.HTTP11);
+        return new ReactorClientHttpConnector(httpClient);
+    }
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Lets identical requests that arrive while one is already in flight share its response instead of
+ * reaching the server again. A flight is forgotten as soon as it ends, so nothing is remembered after it,
+ * errors included. How many calls were answered by another call's flight is published as the dedup ratio.
+ */
+@Component
+public class SingleFlight implements MeterBinder {
+
+    private final ConcurrentMap<List<String>, Mono<ResponseEntity<String>>> flights = new ConcurrentHashMap<>();
+
+    private final LongAdder calls = new LongAdder();
+
+    private final LongAdder upstreamCalls = new LongAdder();
+
+    public Mono<ResponseEntity<String>> execute(List<String> key, Supplier<Mono<ResponseEntity<String>>> call) {
+        return Mono.defer(() -> {
+            calls.increment();
+            return flights.computeIfAbsent(key, k -> {
+                upstreamCalls.increment();
+                AtomicReference<Mono<ResponseEntity<String>>> flight = new AtomicReference<>();
+                // Forgotten before the response is passed on, so a caller that already has it starts a new flight
+                flight.set(call.get()
+                        .doOnEach(signal -> flights.remove(k, flight.get()))
+                        .cache());
+                return flight.get();
+            });
+        });
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    public long getUpstreamCalls() {
+        return upstreamCalls.sum();
+    }
+
+    /**
+     * The share of calls that didn't reach the server.
+     */
+    public double getDedupRatio() {
+        long total = getCalls();
+        return total == 0 ? 0 : 1 - (double) getUpstreamCalls() / total;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("shareit.singleflight.calls", this, SingleFlight::getCalls)
+                .description("The number of GET requests to the server that were asked for.")
+                .register(registry);
+        FunctionCounter.builder("shareit.singleflight.upstream.calls", this, SingleFlight::getUpstreamCalls)
+                .description("The number of GET requests that were actually sent to the server.")
+                .register(registry);
+        Gauge.builder("shareit.singleflight.dedup.ratio", this, SingleFlight::getDedupRatio)
+                .description("The share of GET requests answered by an identical request in flight.")
+                .register(registry);
+    }
+}
@@ -1,9 +1,12 @@
 package ru.practicum.shareit.exception;
 
+import io.netty.handler.timeout.ReadTimeoutException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 import ru.practicum.shareit.exception.model.ErrorResponse;
 
 import javax.validation.ConstraintViolationException;
@@ -22,4 +25,15 @@ public class ControllerExceptionHandler {
     public ErrorResponse handleConstraintViolationException(ConstraintViolationException ex) {
         return new ErrorResponse(ex.getMessage());
     }
+
+    /**
+     * The server didn't answer in time, or it couldn't be reached or the connection pool to it is exhausted.
+     */
+    @ExceptionHandler(WebClientRequestException.class)
+    public ResponseEntity<ErrorResponse> handleWebClientRequestException(WebClientRequestException ex) {
+        HttpStatus status = ex.getCause() instanceof ReadTimeoutException
+                ? HttpStatus.GATEWAY_TIMEOUT
+                : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status).body(new ErrorResponse(ex.getMessage()));
+    }
 }
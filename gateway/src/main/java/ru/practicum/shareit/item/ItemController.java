@@ -1,11 +1,11 @@
 package ru.practicum.shareit.item;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.client.ItemClient;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
@@ -27,27 +27,25 @@ public class ItemController {
 
     private final ItemClient client;
 
-    private final ObjectMapper objectMapper;
-
     @GetMapping
-    public Mono<ResponseEntity<String>> getAllByUserId(
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAllByUserId(
             @RequestHeader("X-Sharer-User-Id") @NotNull Long userId,
             @RequestParam(name = "from", required = false) @Min(0) Integer from,
             @RequestParam(name = "size", required = false) @Min(0) Integer size) {
-        return client.get("/", userId, getValidatedPaginationParameters(from, size));
+        return client.stream("/", userId, getValidatedPaginationParameters(from, size));
     }
 
 
     @GetMapping("{id}")
     public Mono<ResponseEntity<String>> get(@PathVariable Long id,
                                             @RequestHeader("X-Sharer-User-Id") @NotNull Long userId) {
-        return client.get(String.format("/%d", id), userId, null);
+        return client.get(id, userId);
     }
 
     @PostMapping
     public Mono<ResponseEntity<String>> create(@RequestHeader("X-Sharer-User-Id") @NotNull Long userId,
-                                               @Valid @RequestBody ItemDto itemDto) throws JsonProcessingException {
-        return client.post("/", userId, objectMapper.writeValueAsString(itemDto));
+                                               @Valid @RequestBody ItemDto itemDto) {
+        return client.create(userId, itemDto);
     }
 
 
@@ -55,8 +53,8 @@ public class ItemController {
     public Mono<ResponseEntity<String>> update(
             @RequestHeader("X-Sharer-User-Id") @NotNull Long userId,
             @RequestBody @NotNull ItemDto itemDto,
-            @PathVariable @NotNull Long id) throws JsonProcessingException {
-        return client.patch(String.format("/%d", id), userId, objectMapper.writeValueAsString(itemDto));
+            @PathVariable @NotNull Long id) {
+        return client.update(id, userId, itemDto);
     }
 
     @GetMapping("search")
@@ -69,13 +67,13 @@ public class ItemController {
         }
         Map<String, Object> params = getValidatedPaginationParameters(from, size);
         params.put("text", keyword);
-        return client.get("/search", null, params);
+        return client.search(params);
     }
 
     @PostMapping("{itemId}/comment")
     public Mono<ResponseEntity<String>> createComment(@RequestHeader("X-Sharer-User-Id") @NotNull Long userId,
                                                       @Valid @RequestBody CommentDto commentDto,
-                                                      @PathVariable @NotNull Long itemId) throws JsonProcessingException {
-        return client.post(String.format("/%d/comment", itemId), userId, objectMapper.writeValueAsString(commentDto));
+                                                      @PathVariable @NotNull Long itemId) {
+        return client.createComment(itemId, userId, commentDto);
     }
 }
@@ -1,31 +1,79 @@
 package ru.practicum.shareit.item.client;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.SingleFlight;
+import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.requests.client.ItemRequestClient;
 
+import java.time.Duration;
 import java.util.Map;
 
 @Service
 public class ItemClient extends BaseClient {
     public static final String API_PREFIX = "/items";
+    public static final String SEARCH_PATH = "/search";
 
-    public ItemClient(@Value("${shareit-server.url}") String baseUrl, WebClient.Builder webClientBuilder) {
-        super(webClientBuilder.baseUrl(baseUrl + API_PREFIX).build());
+    private final Duration itemTtl;
+    private final Duration searchTtl;
+
+    public ItemClient(@Value("${shareit-server.url}") String baseUrl, WebClient.Builder webClientBuilder,
+                      ResponseCache responseCache, SingleFlight singleFlight,
+                      @Value("${shareit.cache.items.ttl:PT30S}") Duration itemTtl,
+                      @Value("${shareit.cache.search.ttl:PT10S}") Duration searchTtl) {
+        super(webClientBuilder.baseUrl(baseUrl + API_PREFIX).build(), API_PREFIX, responseCache, singleFlight);
+        this.itemTtl = itemTtl;
+        this.searchTtl = searchTtl;
+    }
+
+    public static String itemPath(long id) {
+        return String.format("%s/%d", API_PREFIX, id);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> stream(String path, Long userId, Map<String, Object> parameters) {
+        return super.stream(path, userId, parameters);
+    }
+
+    public Mono<ResponseEntity<String>> get(long id, Long userId) {
+        return getCached(String.format("/%d", id), userId, null, itemTtl);
+    }
+
+    public Mono<ResponseEntity<String>> search(Map<String, Object> parameters) {
+        return getCached(SEARCH_PATH, null, parameters, searchTtl);
     }
 
-    public Mono<ResponseEntity<String>> get(String path, Long userId, Map<String, Object> parameters) {
-        return super.get(path, userId, parameters);
+    public Mono<ResponseEntity<String>> create(Long userId, ItemDto itemDto) {
+        Mono<ResponseEntity<String>> response = post("/", userId, null, itemDto);
+        if (itemDto.getRequestId() != null) {
+            return evictOnSuccess(response,
+                    API_PREFIX + SEARCH_PATH, ItemRequestClient.requestPath(itemDto.getRequestId()));
+        }
+        return evictOnSuccess(response, API_PREFIX + SEARCH_PATH);
     }
 
-    public Mono<ResponseEntity<String>> post(String path, Long userId, String body) {
-        return super.post(path, userId, null, body);
+    /**
+     * The patch doesn't say which request the item answers, so every cached request is evicted with the item.
+     */
+    public Mono<ResponseEntity<String>> update(long id, Long userId, ItemDto itemDto) {
+        return evictOnSuccess(patch(String.format("/%d", id), userId, null, itemDto),
+                itemPath(id), API_PREFIX + SEARCH_PATH)
+                .doOnNext(response -> {
+                    if (response.getStatusCode().is2xxSuccessful()) {
+                        evictPrefix(ItemRequestClient.API_PREFIX + "/");
+                    }
+                });
     }
 
-    public Mono<ResponseEntity<String>> patch(String path, Long userId, String body) {
-        return super.patch(path, userId, null, body);
+    public Mono<ResponseEntity<String>> createComment(long itemId, Long userId, CommentDto commentDto) {
+        return evictOnSuccess(post(String.format("/%d/comment", itemId), userId, null, commentDto),
+                itemPath(itemId), API_PREFIX + SEARCH_PATH);
     }
 }
@@ -1,11 +1,11 @@
 package ru.practicum.shareit.requests;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import ru.practicum.shareit.requests.client.ItemRequestClient;
 import ru.practicum.shareit.requests.dto.ItemRequestDto;
@@ -23,29 +23,29 @@ import static ru.practicum.shareit.util.ParamValidator.getValidatedPaginationPar
 public class ItemRequestController {
 
     private final ItemRequestClient client;
-    private final ObjectMapper objectMapper;
 
     @PostMapping
     public Mono<ResponseEntity<String>> create(@RequestHeader("X-Sharer-User-Id") @NotNull Long requesterId,
-                                               @RequestBody @Valid ItemRequestDto itemRequestDto) throws JsonProcessingException {
-        return client.post("/", requesterId, objectMapper.writeValueAsString(itemRequestDto));
+                                               @RequestBody @Valid ItemRequestDto itemRequestDto) {
+        return client.post("/", requesterId, itemRequestDto);
     }
 
     @GetMapping
-    public Mono<ResponseEntity<String>> getByOwnerId(@RequestHeader("X-Sharer-User-Id") @NotNull Long requesterId) {
-        return client.get("/", requesterId, null);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getByOwnerId(@RequestHeader("X-Sharer-User-Id") @NotNull Long requesterId) {
+        return client.stream("/", requesterId, null);
     }
 
     @GetMapping("{requestId}")
     public Mono<ResponseEntity<String>> getById(@RequestHeader("X-Sharer-User-Id") @NotNull Long requesterId,
                                                 @PathVariable Long requestId) {
-        return client.get(String.format("/%d", requestId), requesterId, null);
+        return client.get(requestId, requesterId);
     }
 
     @GetMapping("all")
-    public Mono<ResponseEntity<String>> getAll(@RequestHeader("X-Sharer-User-Id") @NotNull Long userId,
-                                               @RequestParam(name = "from", required = false) @Min(0) Integer from,
-                                               @RequestParam(name = "size", required = false) @Min(1) Integer size) {
-        return client.get("/all", userId, getValidatedPaginationParameters(from, size));
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAll(@RequestHeader("X-Sharer-User-Id") @NotNull Long userId,
+                                                         @RequestParam(name = "from", required = false) @Min(0) Integer from,
+                                                         @RequestParam(name = "size", required = false) @Min(1) Integer size,
+                                                         @RequestParam(name = "after", required = false) String after) {
+        return client.stream("/all", userId, getValidatedPaginationParameters(from, size, after));
     }
 }
@@ -1,27 +1,45 @@
 package ru.practicum.shareit.requests.client;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.SingleFlight;
 
+import java.time.Duration;
 import java.util.Map;
 
 @Service
 public class ItemRequestClient extends BaseClient {
     public static final String API_PREFIX = "/requests";
 
-    public ItemRequestClient(@Value("${shareit-server.url}") String baseUrl, WebClient.Builder webClientBuilder) {
-        super(webClientBuilder.baseUrl(baseUrl + API_PREFIX).build());
+    private final Duration requestTtl;
+
+    public ItemRequestClient(@Value("${shareit-server.url}") String baseUrl, WebClient.Builder webClientBuilder,
+                             ResponseCache responseCache, SingleFlight singleFlight,
+                             @Value("${shareit.cache.requests.ttl:PT30S}") Duration requestTtl) {
+        super(webClientBuilder.baseUrl(baseUrl + API_PREFIX).build(), API_PREFIX, responseCache, singleFlight);
+        this.requestTtl = requestTtl;
+    }
+
+    public static String requestPath(long id) {
+        return String.format("%s/%d", API_PREFIX, id);
     }
 
-    public Mono<ResponseEntity<String>> post(String path, Long userId, String body) {
+    public Mono<ResponseEntity<String>> post(String path, Long userId, Object body) {
         return super.post(path, userId, null, body);
     }
 
-    public Mono<ResponseEntity<String>> get(String path, Long userId, Map<String, Object> params) {
-        return super.get(path, userId, params);
+    public Mono<ResponseEntity<String>> get(long id, Long userId) {
+        return getCached(String.format("/%d", id), userId, null, requestTtl);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> stream(String path, Long userId, Map<String, Object> params) {
+        return super.stream(path, userId, params);
     }
 }
@@ -1,11 +1,11 @@
 package ru.practicum.shareit.user;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.client.UserClient;
 import ru.practicum.shareit.user.dto.PatchUserDto;
@@ -22,10 +22,8 @@ public class UserController {
 
     private final UserClient client;
 
-    private final ObjectMapper objectMapper;
-
     @GetMapping
-    public Mono<ResponseEntity<String>> getAll() {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAll() {
         return client.get();
     }
 
@@ -35,14 +33,14 @@ public class UserController {
     }
 
     @PostMapping
-    public Mono<ResponseEntity<String>> create(@Valid @RequestBody UserDto userDto) throws JsonProcessingException {
-        return client.post(objectMapper.writeValueAsString(userDto));
+    public Mono<ResponseEntity<String>> create(@Valid @RequestBody UserDto userDto) {
+        return client.post(userDto);
     }
 
     @PatchMapping({"{id}"})
     public Mono<ResponseEntity<String>> update(@Valid @RequestBody PatchUserDto userDto,
-                                               @PathVariable @NotNull Long id) throws JsonProcessingException {
-        return client.patch(String.valueOf(id), objectMapper.writeValueAsString(userDto));
+                                               @PathVariable @NotNull Long id) {
+        return client.patch(String.valueOf(id), userDto);
     }
 
     @DeleteMapping({"{id}"})
@@ -20,6 +20,20 @@ public class ParamValidator {
         return parameters;
     }
 
+    /**
+     * Pagination parameters for lists which also accept a cursor of the previous page instead of an offset.
+     */
+    public static Map<String, Object> getValidatedPaginationParameters(Integer from, Integer size, String after) {
+        if (from != null && after != null) {
+            throw new ValidationException("Parameters from and after can't be used together");
+        }
+        Map<String, Object> parameters = getValidatedPaginationParameters(from, size);
+        if (after != null) {
+            parameters.put("after", after);
+        }
+        return parameters;
+    }
+
     public static State validateAndGetState(String state) {
         try {
             return State.valueOf(state);
@@ -0,0 +1,114 @@
+package ru.practicum.shareit.benchmark;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+import ru.practicum.shareit.benchmark.annotation.BenchmarkTest;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Keeps up to thousands of proxied requests in flight against a stub server that answers after a delay,
+ * and logs how many threads the JVM needed and the p99 latency for each level of concurrency.
+ * The stub and the load client run in the same JVM, so thread counts include theirs too.
+ */
+@Slf4j
+@BenchmarkTest
+class GatewayLoadBenchmarkTest {
+
+    private static final Duration SERVER_DELAY = Duration.ofMillis(50);
+
+    private static final int REQUESTS_PER_CLIENT = 10;
+
+    private static final int MAX_CONCURRENCY = 2000;
+
+    private static DisposableServer server;
+
+    @LocalServerPort
+    int port;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        server = HttpServer.create()
+                .port(0)
+                .handle((request, response) -> response
+                        .header("Content-Type", "application/json")
+                        .sendString(Mono.delay(SERVER_DELAY).thenReturn("[]")))
+                .bindNow();
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.port());
+        registry.add("shareit-server.client.max-connections", () -> MAX_CONCURRENCY);
+        registry.add("shareit-server.client.pending-acquire-max-count", () -> MAX_CONCURRENCY);
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.disposeNow();
+    }
+
+    @Test
+    void getUsers_threadsAndLatencyUnderConcurrentLoad() {
+        ConnectionProvider clientConnections = ConnectionProvider.builder("load")
+                .maxConnections(MAX_CONCURRENCY)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        WebClient client = WebClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(clientConnections)))
+                .build();
+        try {
+            run(client, 100);
+            for (int concurrency : new int[]{10, 100, 1000, MAX_CONCURRENCY}) {
+                run(client, concurrency);
+            }
+        } finally {
+            clientConnections.dispose();
+        }
+    }
+
+    private void run(WebClient client, int concurrency) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        int requests = concurrency * REQUESTS_PER_CLIENT;
+        long start = System.nanoTime();
+        List<Long> latencies = Flux.range(0, requests)
+                .flatMap(i -> timed(client), concurrency)
+                .sort()
+                .collectList()
+                .block();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        assertEquals(requests, latencies.size());
+        log.info("[benchmark] GET /users, {} in flight: {} requests in {} ms, p50 {} ms, p99 {} ms, " +
+                        "peak {} JVM threads",
+                concurrency, requests, elapsedMillis,
+                latencies.get(latencies.size() / 2) / 1_000_000,
+                latencies.get(latencies.size() * 99 / 100) / 1_000_000,
+                threads.getPeakThreadCount());
+    }
+
+    private Mono<Long> timed(WebClient client) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return client.get()
+                    .uri("/users")
+                    .retrieve()
+                    .toBodilessEntity()
+                    .map(response -> System.nanoTime() - start);
+        });
+    }
+}
@@ -1,29 +1,25 @@
 package ru.practicum.shareit.integration;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
-import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.reactive.server.WebTestClient;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import java.util.stream.Stream;
 
-import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
-import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
-
 @SpringBootTest
 @ActiveProfiles("test")
-@AutoConfigureMockMvc
+@AutoConfigureWebTestClient
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 public class ItemControllerTest {
 
@@ -33,19 +29,20 @@ public class ItemControllerTest {
 
     public static final String COMMENT_URL = "/comment";
 
-    final MockMvc mockMvc;
-    final ObjectMapper mapper;
+    final WebTestClient webTestClient;
 
 
     @ParameterizedTest(name = "{0}")
     @MethodSource("badParametersForCreate")
-    void create_shouldErrorStatusForBadParameters(String name, ItemDto itemDto, HttpStatus status) throws Exception {
-
-        mockMvc.perform(post(BASE_URL + "/")
-                        .contentType("application/json")
-                        .content(mapper.writeValueAsString(itemDto))
-                        .header("X-Sharer-User-Id", 1L))
-                .andExpect(status().is(status.value()));
+    void create_shouldErrorStatusForBadParameters(String name, ItemDto itemDto, HttpStatus status) {
+
+        webTestClient.post()
+                .uri(BASE_URL + "/")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(itemDto)
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isEqualTo(status);
     }
 
     private static Stream<Arguments> badParametersForCreate() {
@@ -57,20 +54,24 @@ public class ItemControllerTest {
     }
 
     @Test
-    void searchByKeyword_shouldOkWhenReceiveEmptyString() throws Exception {
-        mockMvc.perform(get(BASE_URL + SEARCH_URL).param("text", ""))
-                .andExpect(status().isOk());
+    void searchByKeyword_shouldOkWhenReceiveEmptyString() {
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path(BASE_URL + SEARCH_URL).queryParam("text", "").build())
+                .exchange()
+                .expectStatus().isOk();
     }
 
     @Test
-    void createComment_shouldAnswer400WithEmptyText() throws Exception {
+    void createComment_shouldAnswer400WithEmptyText() {
 
         var commentDto = CommentDto.builder().build();
 
-        mockMvc.perform(post(BASE_URL + "/{itemId}" + COMMENT_URL, 1L)
-                        .contentType("application/json")
-                        .header("X-Sharer-User-Id", 1L)
-                        .content(mapper.writeValueAsString(commentDto)))
-                .andExpect(status().isBadRequest());
+        webTestClient.post()
+                .uri(BASE_URL + "/{itemId}" + COMMENT_URL, 1L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("X-Sharer-User-Id", "1")
+                .bodyValue(commentDto)
+                .exchange()
+                .expectStatus().isBadRequest();
     }
 }
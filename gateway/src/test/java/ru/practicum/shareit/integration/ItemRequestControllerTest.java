@@ -1,27 +1,23 @@
 package ru.practicum.shareit.integration;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
-import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.reactive.server.WebTestClient;
 import ru.practicum.shareit.requests.dto.ItemRequestDto;
 
 import java.util.stream.Stream;
 
-import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
-import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
-
 @SpringBootTest
 @ActiveProfiles("test")
-@AutoConfigureMockMvc
+@AutoConfigureWebTestClient
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 public class ItemRequestControllerTest {
 
@@ -29,30 +25,45 @@ public class ItemRequestControllerTest {
 
     private static final long WRONG_ID = 404L;
 
-    final MockMvc mockMvc;
-
-    final ObjectMapper mapper;
+    final WebTestClient webTestClient;
 
     @Test
-    void create_shouldAnswer400WhenDescriptionIsEmpty() throws Exception {
+    void create_shouldAnswer400WhenDescriptionIsEmpty() {
         var requestDto = ItemRequestDto.builder().build();
 
-        mockMvc.perform(post(BASE_URL + "/")
-                        .contentType("application/json")
-                        .content(mapper.writeValueAsString(requestDto))
-                        .header("X-Sharer-User-Id", WRONG_ID))
-                .andExpect(status().isBadRequest());
+        webTestClient.post()
+                .uri(BASE_URL + "/")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(requestDto)
+                .header("X-Sharer-User-Id", String.valueOf(WRONG_ID))
+                .exchange()
+                .expectStatus().isBadRequest();
     }
 
     @ParameterizedTest(name = "{0}")
     @MethodSource("badArguments")
-    void getAll_shouldAnswer400WhenBadParams(String name, Integer from, Integer size) throws Exception {
+    void getAll_shouldAnswer400WhenBadParams(String name, Integer from, Integer size) {
 
-        mockMvc.perform(get(BASE_URL + "/all")
-                        .param("from", String.valueOf(from))
-                        .param("size", String.valueOf(size))
-                        .header("X-Sharer-User-Id", WRONG_ID))
-                .andExpect(status().isBadRequest());
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path(BASE_URL + "/all")
+                        .queryParam("from", String.valueOf(from))
+                        .queryParam("size", String.valueOf(size))
+                        .build())
+                .header("X-Sharer-User-Id", String.valueOf(WRONG_ID))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void getAll_shouldAnswer400WhenFromAndAfterAreUsedTogether() {
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path(BASE_URL + "/all")
+                        .queryParam("from", "0")
+                        .queryParam("after", "cursor")
+                        .build())
+                .header("X-Sharer-User-Id", String.valueOf(WRONG_ID))
+                .exchange()
+                .expectStatus().isBadRequest();
     }
 
     private static Stream<Arguments> badArguments() {
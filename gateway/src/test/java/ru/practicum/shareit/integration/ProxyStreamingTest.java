@@ -0,0 +1,140 @@
+package ru.practicum.shareit.integration;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Proxies to a stub server to check that streamed responses and encoded request bodies reach the other side as they were.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureWebTestClient
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ProxyStreamingTest {
+
+    static final String USERS = IntStream.range(0, 20_000)
+            .mapToObj(i -> String.format("{\"id\":%d,\"name\":\"user%d\",\"email\":\"user%d@mail.ru\"}", i, i, i))
+            .collect(Collectors.joining(",", "[", "]"));
+
+    static final String NEXT_CURSOR = "MjAyNi0xMC0xOFQxMjowMDo1";
+
+    static final String NOT_FOUND = "{\"error\":\"User not found\"}";
+
+    static DisposableServer server;
+
+    final WebTestClient webTestClient;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .get("/users/", (request, response) -> response
+                                .header("Content-Type", "application/json")
+                                .sendString(Flux.fromArray(USERS.split("(?<=\\},)"))))
+                        .get("/bookings/owner", (request, response) -> response
+                                .status(HttpStatus.NOT_FOUND.value())
+                                .header("Content-Type", "application/json")
+                                .sendString(Mono.just(NOT_FOUND)))
+                        .get("/bookings/", ProxyStreamingTest::nextPage)
+                        .get("/requests/all", ProxyStreamingTest::nextPage)
+                        .post("/items/", (request, response) -> response
+                                .header("Content-Type", "application/json")
+                                .send(request.receive().retain())))
+                .bindNow();
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.port());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.disposeNow();
+    }
+
+    @Test
+    void getAll_shouldPassLargeResponseThrough() {
+        Flux<DataBuffer> body = webTestClient.get()
+                .uri("/users")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .returnResult(DataBuffer.class).getResponseBody();
+
+        DataBuffer joined = DataBufferUtils.join(body).block();
+        assertEquals(USERS, joined.toString(StandardCharsets.UTF_8));
+        DataBufferUtils.release(joined);
+    }
+
+    @Test
+    void getAllByItemsOwner_shouldPassErrorResponseThrough() {
+        webTestClient.get()
+                .uri("/bookings/owner")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().json(NOT_FOUND);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/bookings", "/requests/all"})
+    void getAll_shouldPassCursorHeadersThrough(String uri) {
+        webTestClient.get()
+                .uri(uri)
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("X-Next-Cursor", NEXT_CURSOR)
+                .expectHeader().valueEquals("X-Has-Next", "true")
+                .expectBody().json("[]");
+    }
+
+    @Test
+    void create_shouldSendValidatedBody() {
+        webTestClient.post()
+                .uri("/items")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(ItemDto.builder().name("drill").description("Дрель").available(true).build())
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("drill")
+                .jsonPath("$.description").isEqualTo("Дрель")
+                .jsonPath("$.available").isEqualTo(true);
+    }
+
+    private static Mono<Void> nextPage(HttpServerRequest request, HttpServerResponse response) {
+        return response
+                .header("Content-Type", "application/json")
+                .header("X-Next-Cursor", NEXT_CURSOR)
+                .header("X-Has-Next", "true")
+                .sendString(Mono.just("[]"))
+                .then();
+    }
+}
@@ -0,0 +1,265 @@
+package ru.practicum.shareit.integration;
+
+import io.netty.handler.codec.http.HttpMethod;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Proxies to a stub server that tags every resource with a version ETag and counts the GETs that reach it.
+ * Item responses stay fresh for the default TTL, request responses are revalidated every time.
+ */
+@SpringBootTest(properties = "shareit.cache.requests.ttl=PT0S")
+@ActiveProfiles("test")
+@AutoConfigureWebTestClient
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ResponseCacheTest {
+
+    static final Map<String, AtomicInteger> VERSIONS = new ConcurrentHashMap<>();
+
+    static final Map<String, AtomicInteger> GETS = new ConcurrentHashMap<>();
+
+    static final List<String> IF_NONE_MATCH = new CopyOnWriteArrayList<>();
+
+    static DisposableServer server;
+
+    final WebTestClient webTestClient;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .get("/items/{id}", ResponseCacheTest::getVersioned)
+                        .get("/requests/{id}", ResponseCacheTest::getVersioned)
+                        .post("/items/{id}/comment", ResponseCacheTest::comment)
+                        .route(request -> request.method() == HttpMethod.PATCH, ResponseCacheTest::patch))
+                .bindNow();
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.port());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.disposeNow();
+    }
+
+    @Test
+    void getById_shouldServeFreshResponseFromCache() {
+        String etag = getItem(1).expectStatus().isOk()
+                .expectBody().jsonPath("$.version").isEqualTo(0)
+                .returnResult().getResponseHeaders().getETag();
+        getItem(1).expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", etag)
+                .expectHeader().valueEquals("X-Version", "0")
+                .expectBody().jsonPath("$.version").isEqualTo(0);
+
+        assertEquals(1, GETS.get("items/1").get());
+    }
+
+    @Test
+    void getById_shouldAnswer304WhenClientHasResponse() {
+        String etag = getItem(2).expectStatus().isOk()
+                .returnResult(String.class).getResponseHeaders().getETag();
+
+        webTestClient.get()
+                .uri("/items/2")
+                .header("X-Sharer-User-Id", "1")
+                .header("If-None-Match", etag)
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    void update_shouldEvictItem() {
+        getItem(4).expectStatus().isOk();
+
+        webTestClient.patch()
+                .uri("/items/4")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(ItemDto.builder().name("new").build())
+                .exchange()
+                .expectStatus().isOk();
+
+        getItem(4).expectStatus().isOk()
+                .expectBody().jsonPath("$.version").isEqualTo(1);
+        assertEquals(2, GETS.get("items/4").get());
+    }
+
+    @Test
+    void approve_shouldEvictItemOfBooking() {
+        getItem(3).expectStatus().isOk();
+
+        webTestClient.patch()
+                .uri(uriBuilder -> uriBuilder.path("/bookings/7").queryParam("approved", true).build())
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isOk();
+
+        getItem(3).expectStatus().isOk()
+                .expectBody().jsonPath("$.version").isEqualTo(1);
+        assertEquals(2, GETS.get("items/3").get());
+    }
+
+    @Test
+    void update_shouldEvictRequests() {
+        getRequest(2).expectStatus().isOk();
+
+        webTestClient.patch()
+                .uri("/items/5")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(ItemDto.builder().name("new").build())
+                .exchange()
+                .expectStatus().isOk();
+
+        getRequest(2).expectStatus().isOk();
+        assertEquals(2, GETS.get("requests/2").get());
+        assertTrue(IF_NONE_MATCH.stream().noneMatch(etag -> etag.startsWith("\"requests/2:")));
+    }
+
+    @Test
+    void createComment_shouldEvictSearch() {
+        search().expectStatus().isOk();
+        search().expectStatus().isOk();
+
+        webTestClient.post()
+                .uri("/items/6/comment")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(CommentDto.builder().text("comment").build())
+                .exchange()
+                .expectStatus().isOk();
+
+        search().expectStatus().isOk()
+                .expectBody().jsonPath("$.version").isEqualTo(1);
+        assertEquals(2, GETS.get("items/search").get());
+    }
+
+    @Test
+    void approve_shouldEvictAllItemsWhenResponseHasNoItem() {
+        getItem(8).expectStatus().isOk();
+
+        webTestClient.patch()
+                .uri(uriBuilder -> uriBuilder.path("/bookings/8").queryParam("approved", true).build())
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isOk();
+
+        getItem(8).expectStatus().isOk()
+                .expectBody().jsonPath("$.version").isEqualTo(1);
+        assertEquals(2, GETS.get("items/8").get());
+    }
+
+    @Test
+    void getById_shouldRevalidateStaleResponse() {
+        for (int i = 0; i < 2; i++) {
+            webTestClient.get()
+                    .uri("/requests/1")
+                    .header("X-Sharer-User-Id", "1")
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody().jsonPath("$.version").isEqualTo(0);
+        }
+
+        assertEquals(2, GETS.get("requests/1").get());
+        assertEquals(List.of("\"requests/1:0\""), IF_NONE_MATCH);
+    }
+
+    private WebTestClient.ResponseSpec getItem(long id) {
+        return webTestClient.get()
+                .uri("/items/{id}", id)
+                .header("X-Sharer-User-Id", "1")
+                .exchange();
+    }
+
+    private WebTestClient.ResponseSpec getRequest(long id) {
+        return webTestClient.get()
+                .uri("/requests/{id}", id)
+                .header("X-Sharer-User-Id", "1")
+                .exchange();
+    }
+
+    private WebTestClient.ResponseSpec search() {
+        return webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/items/search").queryParam("text", "item").build())
+                .header("X-Sharer-User-Id", "1")
+                .exchange();
+    }
+
+    private static Mono<Void> getVersioned(HttpServerRequest request, HttpServerResponse response) {
+        String resource = request.path();
+        GETS.computeIfAbsent(resource, key -> new AtomicInteger()).incrementAndGet();
+        int version = version(resource).get();
+        String etag = "\"" + resource + ":" + version + "\"";
+        String ifNoneMatch = request.requestHeaders().get("If-None-Match");
+        if (ifNoneMatch != null) {
+            IF_NONE_MATCH.add(ifNoneMatch);
+            if (ifNoneMatch.equals(etag)) {
+                return response.status(304).header("ETag", etag).send();
+            }
+        }
+        return json(response.header("ETag", etag).header("X-Version", String.valueOf(version)),
+                "{\"version\":" + version + "}");
+    }
+
+    /**
+     * A comment shows up in the item and in search results.
+     */
+    private static Mono<Void> comment(HttpServerRequest request, HttpServerResponse response) {
+        version("items/" + request.param("id")).incrementAndGet();
+        version("items/search").incrementAndGet();
+        return json(response, "{\"id\":1}");
+    }
+
+    /**
+     * Updating an item changes it, approving booking 7 changes item 3 and approving booking 8 changes item 8
+     * with a response that doesn't name the item.
+     */
+    private static Mono<Void> patch(HttpServerRequest request, HttpServerResponse response) {
+        String resource = request.path();
+        String id = resource.substring(resource.lastIndexOf('/') + 1);
+        if (resource.equals("bookings/8")) {
+            version("items/8").incrementAndGet();
+            return json(response, "not a booking");
+        }
+        if (resource.startsWith("bookings/")) {
+            version("items/3").incrementAndGet();
+            return json(response, "{\"id\":" + id + ",\"item\":{\"id\":3}}");
+        }
+        version(resource).incrementAndGet();
+        return json(response, "{\"id\":" + id + "}");
+    }
+
+    private static AtomicInteger version(String resource) {
+        return VERSIONS.computeIfAbsent(resource, key -> new AtomicInteger());
+    }
+
+    private static Mono<Void> json(HttpServerResponse response, String body) {
+        return response.header("Content-Type", "application/json").sendString(Mono.just(body)).then();
+    }
+}
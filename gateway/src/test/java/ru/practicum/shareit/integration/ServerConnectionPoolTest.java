@@ -0,0 +1,106 @@
+package ru.practicum.shareit.integration;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Proxies to a slow stub server through a pool of one connection with room for one waiting request.
+ */
+@SpringBootTest(properties = {
+        "shareit-server.client.max-connections=1",
+        "shareit-server.client.pending-acquire-max-count=1",
+        "shareit-server.client.response-timeout=PT1S"
+})
+@ActiveProfiles("test")
+@AutoConfigureWebTestClient
+@AutoConfigureMetrics
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ServerConnectionPoolTest {
+
+    static DisposableServer server;
+
+    final WebTestClient webTestClient;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .get("/bookings/1", (request, response) -> response
+                                .header("Content-Type", "application/json")
+                                .sendString(Mono.delay(Duration.ofMillis(300)).thenReturn("{\"id\":1}")))
+                        .get("/bookings/2", (request, response) -> response
+                                .header("Content-Type", "application/json")
+                                .sendString(Mono.delay(Duration.ofSeconds(3)).thenReturn("{\"id\":2}"))))
+                .bindNow();
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.port());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.disposeNow();
+    }
+
+    @Test
+    void get_shouldRejectRequestsBeyondPendingLimit() {
+        List<Integer> statuses = Flux.range(0, 3)
+                .flatMap(i -> Mono.fromCallable(() -> webTestClient.get()
+                                .uri("/bookings/1")
+                                .header("X-Sharer-User-Id", String.valueOf(i))
+                                .exchange()
+                                .returnResult(String.class)
+                                .getRawStatusCode())
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .sort()
+                .collectList()
+                .block();
+
+        assertEquals(List.of(200, 200, 503), statuses);
+    }
+
+    @Test
+    void get_shouldTimeOutSlowResponse() {
+        webTestClient.get()
+                .uri("/bookings/2")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isEqualTo(504);
+    }
+
+    @Test
+    void prometheus_shouldPublishPoolMetrics() {
+        webTestClient.get()
+                .uri("/bookings/1")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isOk();
+
+        webTestClient.get()
+                .uri("/actuator/prometheus")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .value(containsString("reactor_netty_connection_provider_max_connections{"))
+                .value(containsString("name=\"shareit-server\""));
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.integration;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Proxies to a stub server that only speaks cleartext HTTP/2 and answers with the id of the stream it was asked on.
+ */
+@SpringBootTest(properties = "shareit-server.client.h2c=true")
+@ActiveProfiles("test")
+@AutoConfigureWebTestClient
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ServerH2cTest {
+
+    static DisposableServer server;
+
+    final WebTestClient webTestClient;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        server = HttpServer.create()
+                .port(0)
+                .protocol(HttpProtocol.H2C)
+                .handle((request, response) -> response
+                        .header("Content-Type", "application/json")
+                        .sendString(Mono.just("{\"streamId\":" + request.requestHeaders().get("x-http2-stream-id") + "}")))
+                .bindNow();
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.port());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.disposeNow();
+    }
+
+    @Test
+    void get_shouldUseHttp2() {
+        webTestClient.get()
+                .uri("/items/1")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.streamId").isNumber();
+    }
+}
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.integration;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import ru.practicum.shareit.client.SingleFlight;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Sends bursts of identical GETs to a stub server that answers after a delay and counts the calls per user.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureWebTestClient
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class SingleFlightTest {
+
+    static final Map<String, AtomicInteger> CALLS = new ConcurrentHashMap<>();
+
+    static DisposableServer server;
+
+    final WebTestClient webTestClient;
+
+    final SingleFlight singleFlight;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        server = HttpServer.create()
+                .port(0)
+                .handle((request, response) -> {
+                    String key = request.path() + ":" + request.requestHeaders().get("X-Sharer-User-Id");
+                    int call = CALLS.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+                    return response
+                            .header("Content-Type", "application/json")
+                            .sendString(Mono.delay(Duration.ofMillis(300)).thenReturn("{\"call\":" + call + "}"));
+                })
+                .bindNow();
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.port());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.disposeNow();
+    }
+
+    @Test
+    void get_shouldShareOneCallBetweenIdenticalRequestsInFlight() {
+        long calls = singleFlight.getCalls();
+        long upstreamCalls = singleFlight.getUpstreamCalls();
+
+        List<String> bodies = Flux.range(0, 10)
+                .flatMap(i -> getBooking(1, i % 2 + 1), 10)
+                .collectList()
+                .block();
+
+        assertEquals(10, bodies.size());
+        bodies.forEach(body -> assertEquals("{\"call\":1}", body));
+        assertEquals(1, CALLS.get("bookings/1:1").get());
+        assertEquals(1, CALLS.get("bookings/1:2").get());
+        assertEquals(10, singleFlight.getCalls() - calls);
+        assertEquals(2, singleFlight.getUpstreamCalls() - upstreamCalls);
+    }
+
+    @Test
+    void get_shouldNotRememberResponseAfterFlight() {
+        assertEquals("{\"call\":1}", getBooking(2, 1).block());
+        assertEquals("{\"call\":2}", getBooking(2, 1).block());
+    }
+
+    private Mono<String> getBooking(long id, long userId) {
+        return Mono.fromCallable(() -> webTestClient.get()
+                        .uri("/bookings/{id}", id)
+                        .header("X-Sharer-User-Id", String.valueOf(userId))
+                        .exchange()
+                        .expectStatus().isOk()
+                        .expectBody(String.class)
+                        .returnResult()
+                        .getResponseBody())
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
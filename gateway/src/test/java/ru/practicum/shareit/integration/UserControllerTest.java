@@ -1,26 +1,23 @@
 package ru.practicum.shareit.integration;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
-import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.reactive.server.WebTestClient;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.stream.Stream;
 
-import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
-
 @SpringBootTest
 @ActiveProfiles("test")
-@AutoConfigureMockMvc
+@AutoConfigureWebTestClient
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 public class UserControllerTest {
 
@@ -29,16 +26,17 @@ public class UserControllerTest {
     public static final String BASE_EMAIL = "test@mail.ru";
     public static final String INVALID_EMAIL = "test@.ru";
 
-    private final MockMvc mockMvc;
-    private final ObjectMapper mapper;
+    private final WebTestClient webTestClient;
 
     @ParameterizedTest(name = "{0}")
     @MethodSource("badParametersForCreate")
-    void create_shouldErrorStatusForBadParameters(String name, UserDto userDto, HttpStatus status) throws Exception {
-        mockMvc.perform(post(BASE_URL + "/")
-                        .contentType("application/json")
-                        .content(mapper.writeValueAsString(userDto)))
-                .andExpect(status().is(status.value()));
+    void create_shouldErrorStatusForBadParameters(String name, UserDto userDto, HttpStatus status) {
+        webTestClient.post()
+                .uri(BASE_URL + "/")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(userDto)
+                .exchange()
+                .expectStatus().isEqualTo(status);
     }
 
     private static Stream<Arguments> badParametersForCreate() {
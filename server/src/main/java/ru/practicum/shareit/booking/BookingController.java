@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.database.Booking;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
@@ -9,6 +10,8 @@ import ru.practicum.shareit.booking.dto.BookingOutputDto;
 import ru.practicum.shareit.booking.dto.State;
 import ru.practicum.shareit.booking.service.BookingMapper;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.common.Cursor;
+import ru.practicum.shareit.common.OffsetLimitPageable;
 
 import java.util.List;
 
@@ -46,20 +49,35 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingOutputDto> getAllByBooker(
+    public ResponseEntity<List<BookingOutputDto>> getAllByBooker(
             @RequestHeader("X-Sharer-User-Id") Long userId,
             @RequestParam(defaultValue = "ALL") State state,
             @RequestParam(name = "from", required = false) Integer from,
-            @RequestParam(name = "size", required = false) Integer size) {
-        return bookingMapper.toDto(bookingService.getAllByBooker(userId, state, from, size));
+            @RequestParam(name = "size", required = false) Integer size,
+            @RequestParam(name = "after", required = false) String after) {
+        List<Booking> bookings = after == null
+                ? bookingService.getAllByBooker(userId, state, from, size)
+                : bookingService.getAllByBookerAfter(userId, state, Cursor.decode(after), size);
+        return withNextCursor(bookings, size);
     }
 
     @GetMapping("owner")
-    public List<BookingOutputDto> getAllByItemsOwner(
+    public ResponseEntity<List<BookingOutputDto>> getAllByItemsOwner(
             @RequestHeader("X-Sharer-User-Id") Long userId,
             @RequestParam(defaultValue = "ALL") State state,
             @RequestParam(name = "from", required = false) Integer from,
-            @RequestParam(name = "size", required = false) Integer size) {
-        return bookingMapper.toDto(bookingService.getAllByItemsOwner(userId, state, from, size));
+            @RequestParam(name = "size", required = false) Integer size,
+            @RequestParam(name = "after", required = false) String after) {
+        List<Booking> bookings = after == null
+                ? bookingService.getAllByItemsOwner(userId, state, from, size)
+                : bookingService.getAllByItemsOwnerAfter(userId, state, Cursor.decode(after), size);
+        return withNextCursor(bookings, size);
+    }
+
+    private ResponseEntity<List<BookingOutputDto>> withNextCursor(List<Booking> bookings, Integer size) {
+        return ResponseEntity.ok()
+                .headers(Cursor.nextCursorHeaders(bookings, OffsetLimitPageable.limitOf(size),
+                        booking -> new Cursor(booking.getStartTime(), booking.getId())))
+                .body(bookingMapper.toDto(bookings));
     }
 }
@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking.database;
 
 import lombok.*;
 import org.hibernate.Hibernate;
+import org.hibernate.annotations.ColumnDefault;
 import ru.practicum.shareit.booking.dto.BookingStatus;
 import ru.practicum.shareit.item.database.Item;
 import ru.practicum.shareit.user.database.User;
@@ -16,14 +17,24 @@ import java.util.Objects;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        @Index(name = "idx_bookings_booker_id_start_time_id", columnList = "booker_id, start_time DESC, id DESC"),
+        @Index(name = "idx_bookings_item_id_start_time_id", columnList = "item_id, start_time DESC, id DESC"),
+        @Index(name = "idx_bookings_status_end_time", columnList = "status, end_time"),
+        @Index(name = "idx_bookings_item_id_status_end_time", columnList = "item_id, status, end_time"),
+        @Index(name = "idx_bookings_booker_id_item_id_status_end_time",
+                columnList = "booker_id, item_id, status, end_time")
+})
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
 
+    @Column(name = "start_time", nullable = false)
     private LocalDateTime startTime;
 
+    @Column(name = "end_time", nullable = false)
     private LocalDateTime endTime;
 
     @ManyToOne
@@ -37,6 +48,11 @@ public class Booking {
     @Enumerated(EnumType.STRING)
     private BookingStatus status;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.database;
+
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.common.Cursor;
+
+import java.util.List;
+
+public interface BookingKeysetRepository {
+
+    /**
+     * Returns up to {@code limit} bookings matching the specification that follow the cursor
+     * in (start_time desc, id desc) order.
+     */
+    List<Booking> findAllAfter(Specification<Booking> specification, Cursor after, int limit);
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.booking.database;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.common.Cursor;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class BookingKeysetRepositoryImpl implements BookingKeysetRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Booking> findAllAfter(Specification<Booking> specification, Cursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> query = cb.createQuery(Booking.class);
+        Root<Booking> root = query.from(Booking.class);
+        Path<LocalDateTime> startTime = root.get("startTime");
+        Path<Long> id = root.get("id");
+        // start_time <= t lets the database seek on the start_time indexes, the rest breaks ties by id
+        Predicate seek = cb.and(
+                cb.lessThanOrEqualTo(startTime, after.getTime()),
+                cb.or(cb.lessThan(startTime, after.getTime()), cb.lessThan(id, after.getId())));
+        query.select(root)
+                .where(cb.and(specification.toPredicate(root, query, cb), seek))
+                .orderBy(cb.desc(startTime), cb.desc(id));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -2,13 +2,67 @@ package ru.practicum.shareit.booking.database;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.dto.BookingStatus;
 import ru.practicum.shareit.user.database.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingKeysetRepository {
 
     List<Booking> findAllByBookerId(Long userId, Pageable pageable);
 
+    List<Booking> findAllByBookerIdAndStatus(Long userId, BookingStatus status, Pageable pageable);
+
+    List<Booking> findAllByBookerIdAndEndTimeBefore(Long userId, LocalDateTime now, Pageable pageable);
+
+    List<Booking> findAllByBookerIdAndStartTimeAfter(Long userId, LocalDateTime now, Pageable pageable);
+
+    List<Booking> findAllByBookerIdAndStartTimeBeforeAndEndTimeAfter(Long userId,
+                                                                     LocalDateTime start,
+                                                                     LocalDateTime end,
+                                                                     Pageable pageable);
+
+    @Query("select b.version from Booking b where b.id = ?1")
+    Long findVersionById(Long id);
+
+    // exists stops at the first index entry, count(b) > 0 would read all of them
+    @Query(value = "select exists(select 1 from bookings where booker_id = ?1)", nativeQuery = true)
+    boolean existsByBookerId(Long userId);
+
+    @Query(value = "select exists(select 1 from bookings " +
+            "where booker_id = ?1 and item_id = ?2 and status = 'APPROVED' and end_time < ?3)",
+            nativeQuery = true)
+    boolean existsApprovedByBookerIdAndItemIdAndEndTimeBefore(Long userId, Long itemId, LocalDateTime now);
+
     List<Booking> findAllByItemOwner(User user, Pageable pageable);
+
+    List<Booking> findAllByItemOwnerAndStatus(User user, BookingStatus status, Pageable pageable);
+
+    List<Booking> findAllByItemOwnerAndEndTimeBefore(User user, LocalDateTime now, Pageable pageable);
+
+    List<Booking> findAllByItemOwnerAndStartTimeAfter(User user, LocalDateTime now, Pageable pageable);
+
+    List<Booking> findAllByItemOwnerAndStartTimeBeforeAndEndTimeAfter(User user,
+                                                                      LocalDateTime start,
+                                                                      LocalDateTime end,
+                                                                      Pageable pageable);
+
+    @Query(value = "select exists(select 1 from bookings b join items i on i.id = b.item_id where i.owner_id = ?1)",
+            nativeQuery = true)
+    boolean existsByItemOwnerId(Long ownerId);
+
+    @Query("select new ru.practicum.shareit.booking.database.BookingSlot(" +
+            "b.id, b.item.id, b.booker.id, b.startTime, b.endTime) " +
+            "from Booking b " +
+            "where b.status = ?1 and b.endTime > ?2")
+    List<BookingSlot> findSlotsByStatusAndEndTimeAfter(BookingStatus status, LocalDateTime now);
+
+    @Query("select new ru.practicum.shareit.booking.database.BookingSlot(" +
+            "b.id, b.item.id, b.booker.id, b.startTime, b.endTime) " +
+            "from Booking b " +
+            "where b.status = ?1 and b.endTime = (" +
+            "select max(l.endTime) from Booking l where l.item = b.item and l.status = ?1 and l.endTime < ?2)")
+    List<BookingSlot> findLastSlotsByStatusAndEndTimeBefore(BookingStatus status, LocalDateTime now);
 }
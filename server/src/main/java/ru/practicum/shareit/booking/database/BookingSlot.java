@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.database;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Value
+public class BookingSlot {
+
+    Long id;
+
+    Long itemId;
+
+    Long bookerId;
+
+    LocalDateTime startTime;
+
+    LocalDateTime endTime;
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.booking.database;
+
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.booking.dto.State;
+
+import java.time.LocalDateTime;
+
+public class BookingSpecifications {
+
+    public static Specification<Booking> bookedBy(Long bookerId) {
+        return (root, query, cb) -> cb.equal(root.get("booker").get("id"), bookerId);
+    }
+
+    public static Specification<Booking> ofItemsOwnedBy(Long ownerId) {
+        return (root, query, cb) -> cb.equal(root.get("item").get("owner").get("id"), ownerId);
+    }
+
+    public static Specification<Booking> inState(State state, LocalDateTime now) {
+        switch (state) {
+            case ALL:
+                return (root, query, cb) -> cb.conjunction();
+            case WAITING:
+            case REJECTED:
+                BookingStatus status = BookingStatus.valueOf(state.toString());
+                return (root, query, cb) -> cb.equal(root.get("status"), status);
+            case PAST:
+                return (root, query, cb) -> cb.lessThan(root.get("endTime"), now);
+            case FUTURE:
+                return (root, query, cb) -> cb.greaterThan(root.get("startTime"), now);
+            case CURRENT:
+                return (root, query, cb) -> cb.and(
+                        cb.lessThan(root.get("startTime"), now),
+                        cb.greaterThan(root.get("endTime"), now));
+            default:
+                throw new RuntimeException("State is undefined");
+        }
+    }
+}
@@ -19,6 +19,7 @@ public interface BookingMapper {
 
     @Mapping(source = "bookingDto.itemId", target = "item")
     @Mapping(source = "userId", target = "booker")
+    @Mapping(target = "version", ignore = true)
     Booking fromDto(BookingInputDto bookingDto, Long userId);
 
     @Mapping(source = "booker.id", target = "bookerId")
@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.database.Booking;
 import ru.practicum.shareit.booking.dto.State;
+import ru.practicum.shareit.common.Cursor;
 
 import java.util.List;
 
@@ -15,4 +16,13 @@ public interface BookingService {
     List<Booking> getAllByBooker(Long userId, State state, Integer from, Integer size);
 
     List<Booking> getAllByItemsOwner(Long userId, State state, Integer from, Integer size);
+
+    List<Booking> getAllByBookerAfter(Long userId, State state, Cursor after, Integer size);
+
+    List<Booking> getAllByItemsOwnerAfter(Long userId, State state, Cursor after, Integer size);
+
+    /**
+     * Checks that the user has an approved booking of the item that has already ended.
+     */
+    boolean hasFinishedBooking(Long userId, Long itemId);
 }
@@ -1,14 +1,25 @@
 package ru.practicum.shareit.booking.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.practicum.shareit.booking.database.Booking;
 import ru.practicum.shareit.booking.database.BookingRepository;
 import ru.practicum.shareit.booking.dto.BookingStatus;
 import ru.practicum.shareit.booking.dto.State;
+import ru.practicum.shareit.common.Cursor;
 import ru.practicum.shareit.common.OffsetLimitPageable;
+import ru.practicum.shareit.common.StripedLock;
+import ru.practicum.shareit.common.replica.ReplicaRead;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.user.database.User;
@@ -17,40 +28,61 @@ import ru.practicum.shareit.user.service.UserService;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.concurrent.locks.Lock;
+
+import static ru.practicum.shareit.booking.database.BookingSpecifications.bookedBy;
+import static ru.practicum.shareit.booking.database.BookingSpecifications.inState;
+import static ru.practicum.shareit.booking.database.BookingSpecifications.ofItemsOwnedBy;
 
 @Service
+@ReplicaRead
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
 
+    private static final int ITEM_LOCK_STRIPES = 64;
+
+    private static final Sort BY_START_DESC = Sort.by(Sort.Direction.DESC, "startTime", "id");
+
     public final BookingRepository bookingRepository;
 
     public final UserService userService;
 
+    public final ItemBookingIndex itemBookingIndex;
+
+    private final StripedLock itemLocks = new StripedLock(ITEM_LOCK_STRIPES);
+
     @Override
+    @Transactional
+    @Timed("shareit.bookings.create")
     public Booking create(Long userId, Booking booking) {
         booking.setStatus(BookingStatus.WAITING);
         if (Objects.equals(booking.getItem().getOwner().getId(), userId)) {
             throw new NotFoundException("Owner can use it whenever want");
         }
-        if (booking.getItem().getAvailable()) {
-            return bookingRepository.save(booking);
+        if (!booking.getItem().getAvailable()) {
+            throw new ValidationException("Item is not available");
         }
-        throw new ValidationException("Item is not available");
+        return itemLocks.callWithLock(booking.getItem().getId(), () -> {
+            checkItemIsFree(booking);
+            return bookingRepository.save(booking);
+        });
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Booking getById(Long userId, Long id) {
         Booking booking = bookingRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Booking not found"));
         if (Objects.equals(booking.getBooker().getId(), userId)
                 || Objects.equals(booking.getItem().getOwner().getId(), userId)) {
-            return booking;
+            return withItemComments(booking);
         }
         throw new NotFoundException("Wrong user");
     }
 
     @Override
+    @Transactional
+    @Timed("shareit.bookings.approve")
     public Booking approve(Long userId, Long bookingId, Boolean approved) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Booking with id=" + bookingId + "not found"));
@@ -60,54 +92,167 @@ public class BookingServiceImpl implements BookingService {
         if (!Objects.equals(booking.getItem().getOwner().getId(), userId)) {
             throw new NotFoundException("Only for owner available");
         }
-        booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        return bookingRepository.save(booking);
+        // held until the transaction completes, so the next approve of the item sees this one committed and indexed
+        Lock lock = itemLocks.lock(booking.getItem().getId());
+        boolean unlockOnCompletion = false;
+        try {
+            if (!Objects.equals(bookingRepository.findVersionById(bookingId), booking.getVersion())) {
+                throw new ValidationException("Booking already approved");
+            }
+            if (approved) {
+                checkItemIsFree(booking);
+            }
+            booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+            Booking saved;
+            try {
+                // flushed under the item lock, so conflicts are reported here and not on commit
+                saved = bookingRepository.saveAndFlush(booking);
+            } catch (OptimisticLockingFailureException e) {
+                throw new ValidationException("Booking already approved");
+            } catch (DataIntegrityViolationException e) {
+                throw new ConflictException("Item is already booked for this period");
+            }
+            unlockOnCompletion = updateIndexOnCommit(saved, lock);
+            return withItemComments(saved);
+        } finally {
+            if (!unlockOnCompletion) {
+                lock.unlock();
+            }
+        }
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Booking> getAllByBooker(Long userId, State state, Integer from, Integer size) {
-        Pageable pageable = OffsetLimitPageable.of(from, size, Sort.by(Sort.Direction.DESC, "startTime"));
-        List<Booking> bookings = bookingRepository.findAllByBookerId(userId, pageable);
-        if (bookings.isEmpty()) {
+        Pageable pageable = OffsetLimitPageable.of(from, size, BY_START_DESC);
+        List<Booking> bookings = getBookerBookingsByState(userId, state, pageable);
+        if (bookings.isEmpty() && !bookingRepository.existsByBookerId(userId)) {
             throw new NotFoundException("It makes no sense");
         }
-        return getBookingsByState(state, bookings);
+        return withItemComments(bookings);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Booking> getAllByItemsOwner(Long userId, State state, Integer from, Integer size) {
-        Pageable pageable = OffsetLimitPageable.of(from, size, Sort.by(Sort.Direction.DESC, "startTime"));
+        Pageable pageable = OffsetLimitPageable.of(from, size, BY_START_DESC);
         final User user = userService.getById(userId);
-        List<Booking> bookings = bookingRepository.findAllByItemOwner(user, pageable);
-        if (bookings.isEmpty()) {
+        List<Booking> bookings = getOwnerBookingsByState(user, state, pageable);
+        if (bookings.isEmpty() && !bookingRepository.existsByItemOwnerId(userId)) {
             throw new NotFoundException("It makes no sense");
         }
-        return getBookingsByState(state, bookings);
+        return withItemComments(bookings);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Booking> getAllByBookerAfter(Long userId, State state, Cursor after, Integer size) {
+        int limit = OffsetLimitPageable.limitOf(size);
+        List<Booking> bookings = bookingRepository.findAllAfter(
+                bookedBy(userId).and(inState(state, LocalDateTime.now())), after, limit);
+        if (bookings.isEmpty() && !bookingRepository.existsByBookerId(userId)) {
+            throw new NotFoundException("It makes no sense");
+        }
+        return withItemComments(bookings);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Booking> getAllByItemsOwnerAfter(Long userId, State state, Cursor after, Integer size) {
+        int limit = OffsetLimitPageable.limitOf(size);
+        userService.getById(userId);
+        List<Booking> bookings = bookingRepository.findAllAfter(
+                ofItemsOwnedBy(userId).and(inState(state, LocalDateTime.now())), after, limit);
+        if (bookings.isEmpty() && !bookingRepository.existsByItemOwnerId(userId)) {
+            throw new NotFoundException("It makes no sense");
+        }
+        return withItemComments(bookings);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean hasFinishedBooking(Long userId, Long itemId) {
+        return bookingRepository.existsApprovedByBookerIdAndItemIdAndEndTimeBefore(userId, itemId,
+                LocalDateTime.now());
+    }
+
+    /**
+     * Updates the index after commit and releases the lock after that, so a rolled back approve is never indexed.
+     * Returns false when there is no transaction to wait for, the index is updated at once then.
+     */
+    private boolean updateIndexOnCommit(Booking booking, Lock lock) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            itemBookingIndex.update(booking);
+            return false;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                itemBookingIndex.update(booking);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+        return true;
+    }
+
+    private void checkItemIsFree(Booking booking) {
+        if (!itemBookingIndex.isFree(booking.getItem().getId(), booking.getStartTime(), booking.getEndTime())) {
+            throw new ConflictException("Item is already booked for this period");
+        }
+    }
+
+    /**
+     * Loads comments of the booked items while the transaction is open, bookings are mapped to dto after it ends.
+     */
+    private static Booking withItemComments(Booking booking) {
+        Hibernate.initialize(booking.getItem().getComments());
+        return booking;
+    }
+
+    private static List<Booking> withItemComments(List<Booking> bookings) {
+        bookings.forEach(BookingServiceImpl::withItemComments);
+        return bookings;
+    }
+
+    private List<Booking> getBookerBookingsByState(Long userId, State state, Pageable pageable) {
+        LocalDateTime now = LocalDateTime.now();
+        switch (state) {
+            case ALL:
+                return bookingRepository.findAllByBookerId(userId, pageable);
+            case WAITING:
+            case REJECTED:
+                BookingStatus status = BookingStatus.valueOf(state.toString());
+                return bookingRepository.findAllByBookerIdAndStatus(userId, status, pageable);
+            case PAST:
+                return bookingRepository.findAllByBookerIdAndEndTimeBefore(userId, now, pageable);
+            case FUTURE:
+                return bookingRepository.findAllByBookerIdAndStartTimeAfter(userId, now, pageable);
+            case CURRENT:
+                return bookingRepository.findAllByBookerIdAndStartTimeBeforeAndEndTimeAfter(userId, now, now, pageable);
+            default:
+                throw new RuntimeException("State is undefined");
+        }
     }
 
-    private List<Booking> getBookingsByState(State state, List<Booking> bookings) {
+    private List<Booking> getOwnerBookingsByState(User user, State state, Pageable pageable) {
+        LocalDateTime now = LocalDateTime.now();
         switch (state) {
             case ALL:
-                return bookings;
+                return bookingRepository.findAllByItemOwner(user, pageable);
             case WAITING:
             case REJECTED:
                 BookingStatus status = BookingStatus.valueOf(state.toString());
-                return bookings.stream()
-                        .filter(booking -> booking.getStatus().equals(status))
-                        .collect(Collectors.toList());
+                return bookingRepository.findAllByItemOwnerAndStatus(user, status, pageable);
             case PAST:
-                return bookings.stream()
-                        .filter(booking -> LocalDateTime.now().isAfter(booking.getEndTime()))
-                        .collect(Collectors.toList());
+                return bookingRepository.findAllByItemOwnerAndEndTimeBefore(user, now, pageable);
             case FUTURE:
-                return bookings.stream()
-                        .filter(booking -> LocalDateTime.now().isBefore(booking.getStartTime()))
-                        .collect(Collectors.toList());
+                return bookingRepository.findAllByItemOwnerAndStartTimeAfter(user, now, pageable);
             case CURRENT:
-                return bookings.stream()
-                        .filter(booking -> LocalDateTime.now().isAfter(booking.getStartTime())
-                                && LocalDateTime.now().isBefore(booking.getEndTime()))
-                        .collect(Collectors.toList());
+                return bookingRepository.findAllByItemOwnerAndStartTimeBeforeAndEndTimeAfter(user, now, now, pageable);
             default:
                 throw new RuntimeException("State is undefined");
         }
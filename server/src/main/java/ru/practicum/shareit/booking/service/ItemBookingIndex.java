@@ -0,0 +1,146 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.database.Booking;
+import ru.practicum.shareit.booking.database.BookingRepository;
+import ru.practicum.shareit.booking.database.BookingSlot;
+import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.user.database.User;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the last finished and the upcoming approved bookings of every item in memory,
+ * so item listings don't need to load booking history and new bookings can be checked
+ * for overlaps without scanning it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemBookingIndex {
+
+    private final BookingRepository bookingRepository;
+
+    private final Map<Long, Timeline> timelines = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void rebuild() {
+        timelines.clear();
+        LocalDateTime now = LocalDateTime.now();
+        bookingRepository.findLastSlotsByStatusAndEndTimeBefore(BookingStatus.APPROVED, now)
+                .forEach(this::add);
+        bookingRepository.findSlotsByStatusAndEndTimeAfter(BookingStatus.APPROVED, now)
+                .forEach(this::add);
+        log.info("Item booking index is built for {} items", timelines.size());
+    }
+
+    public void update(Booking booking) {
+        if (booking.getStatus() == BookingStatus.APPROVED) {
+            add(new BookingSlot(booking.getId(),
+                    booking.getItem().getId(),
+                    booking.getBooker().getId(),
+                    booking.getStartTime(),
+                    booking.getEndTime()));
+        }
+    }
+
+    /**
+     * Checks that no approved booking of the item overlaps the given period.
+     */
+    public boolean isFree(Long itemId, LocalDateTime start, LocalDateTime end) {
+        Timeline timeline = timelines.get(itemId);
+        return timeline == null || timeline.isFree(start, end, LocalDateTime.now());
+    }
+
+    public Booking getLast(Long itemId) {
+        Timeline timeline = timelines.get(itemId);
+        return timeline == null ? null : toBooking(timeline.getLast(LocalDateTime.now()));
+    }
+
+    public Booking getNext(Long itemId) {
+        Timeline timeline = timelines.get(itemId);
+        return timeline == null ? null : toBooking(timeline.getNext(LocalDateTime.now()));
+    }
+
+    private void add(BookingSlot slot) {
+        timelines.computeIfAbsent(slot.getItemId(), id -> new Timeline()).add(slot, LocalDateTime.now());
+    }
+
+    private static Booking toBooking(BookingSlot slot) {
+        if (slot == null) return null;
+        return Booking.builder()
+                .id(slot.getId())
+                .booker(User.builder().id(slot.getBookerId()).build())
+                .startTime(slot.getStartTime())
+                .endTime(slot.getEndTime())
+                .status(BookingStatus.APPROVED)
+                .build();
+    }
+
+    /**
+     * Last finished booking and all not finished bookings of one item ordered by start.
+     * Bookings move from pending to last as time goes by.
+     * Approved bookings never overlap, so ordered by start they are ordered by end too,
+     * and the only booking that may overlap a period is the last one starting before its end.
+     */
+    private static class Timeline {
+
+        private static final Comparator<BookingSlot> BY_START = Comparator.comparing(BookingSlot::getStartTime)
+                .thenComparing(BookingSlot::getId);
+
+        private final NavigableSet<BookingSlot> pending = new TreeSet<>(BY_START);
+
+        private BookingSlot last;
+
+        synchronized void add(BookingSlot slot, LocalDateTime now) {
+            if (slot.getEndTime().isBefore(now)) {
+                setLastIfLater(slot);
+            } else {
+                pending.add(slot);
+            }
+        }
+
+        synchronized boolean isFree(LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+            rollForward(now);
+            BookingSlot before = pending.lower(new BookingSlot(Long.MIN_VALUE, null, null, end, end));
+            return before == null || !before.getEndTime().isAfter(start);
+        }
+
+        synchronized BookingSlot getLast(LocalDateTime now) {
+            rollForward(now);
+            return last;
+        }
+
+        synchronized BookingSlot getNext(LocalDateTime now) {
+            rollForward(now);
+            return pending.higher(new BookingSlot(Long.MAX_VALUE, null, null, now, now));
+        }
+
+        private void rollForward(LocalDateTime now) {
+            Iterator<BookingSlot> iterator = pending.iterator();
+            while (iterator.hasNext()) {
+                BookingSlot slot = iterator.next();
+                if (!slot.getStartTime().isBefore(now)) break;
+                if (slot.getEndTime().isBefore(now)) {
+                    iterator.remove();
+                    setLastIfLater(slot);
+                }
+            }
+        }
+
+        private void setLastIfLater(BookingSlot slot) {
+            if (last == null || slot.getEndTime().isAfter(last.getEndTime())) {
+                last = slot;
+            }
+        }
+    }
+}
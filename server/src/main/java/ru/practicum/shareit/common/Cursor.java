@@ -0,0 +1,72 @@
+package ru.practicum.shareit.common;
+
+import lombok.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Position in a list ordered by (time desc, id desc), passed to clients as an opaque {@code after} token.
+ * Pages requested after a cursor are read with an index seek instead of skipping {@code from} rows.
+ */
+@Value
+public class Cursor {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public static final String HAS_NEXT_HEADER = "X-Has-Next";
+
+    private static final String SEPARATOR = "|";
+
+    LocalDateTime time;
+
+    Long id;
+
+    public String encode() {
+        String raw = time + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            return new Cursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ValidationException("Invalid cursor: " + token);
+        }
+    }
+
+    /**
+     * Returns headers with the cursor of the last element of a full page. A shorter page is the last one,
+     * so it gets no cursor and clients stop without asking for an empty page.
+     */
+    public static <T> HttpHeaders nextCursorHeaders(List<T> page, int limit, Function<T, Cursor> toCursor) {
+        HttpHeaders headers = new HttpHeaders();
+        if (!page.isEmpty() && page.size() >= limit) {
+            headers.set(NEXT_CURSOR_HEADER, toCursor.apply(page.get(page.size() - 1)).encode());
+        }
+        return headers;
+    }
+
+    /**
+     * Returns headers telling whether the slice has a next one, with the cursor of its last element if it has.
+     */
+    public static <T> HttpHeaders nextCursorHeaders(Slice<T> slice, Function<T, Cursor> toCursor) {
+        HttpHeaders headers = new HttpHeaders();
+        if (slice.hasNext()) {
+            List<T> content = slice.getContent();
+            headers.set(NEXT_CURSOR_HEADER, toCursor.apply(content.get(content.size() - 1)).encode());
+        }
+        headers.set(HAS_NEXT_HEADER, String.valueOf(slice.hasNext()));
+        return headers;
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.common;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.regex.Pattern;
+
+/**
+ * Tags item and request responses with an ETag of the body and answers 304 to a matching If-None-Match,
+ * so the gateway revalidates its cached copies without the body being sent again. The response is still built.
+ * Lists are left out, the gateway streams them without caching, so their hash would only cost a copy of the page.
+ */
+@Configuration
+public class EtagConfiguration {
+
+    private static final Pattern CACHED_PATHS = Pattern.compile("/items/(\\d+|search)|/requests/\\d+");
+
+    private static final UrlPathHelper URL_PATH_HELPER = new UrlPathHelper();
+
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> etagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter() {
+                    @Override
+                    protected boolean shouldNotFilter(HttpServletRequest request) {
+                        String path = URL_PATH_HELPER.getPathWithinApplication(request);
+                        return !CACHED_PATHS.matcher(path).matches();
+                    }
+                });
+        registration.addUrlPatterns("/items/*", "/requests/*");
+        return registration;
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.common;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables {@code @Timed} on service methods. Such timers only keep count, total and max,
+ * so they are cheap enough for hot paths; percentiles are left to the endpoint histograms.
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
@@ -37,6 +37,15 @@ public class OffsetLimitPageable implements Pageable {
         return new OffsetLimitPageable(saveUnboxing(from), saveUnboxing(size), sort);
     }
 
+    /**
+     * Validates the page size of a request paginated with a {@link Cursor} instead of an offset.
+     */
+    public static int limitOf(Integer size) {
+        int limit = size == null ? DEFAULT_PAGE_SIZE : size;
+        validateOrThrowException(0, limit);
+        return limit;
+    }
+
     @Override
     public int getPageNumber() {
         return 0;
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.common;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Remembers entities resolved by id until the current web request ends, so mapping and then
+ * validating the same ids doesn't reach Hibernate again. Outside of a request every call is resolved.
+ */
+@Slf4j
+public class RequestCache {
+
+    private static final String ATTRIBUTE = RequestCache.class.getName();
+
+    public static <T> T get(Class<T> type, Object id, Supplier<T> loader) {
+        Entries entries = getEntries(true);
+        return entries == null ? loader.get() : entries.get(type, id, loader);
+    }
+
+    public static void evict(Class<?> type, Object id) {
+        Entries entries = getEntries(false);
+        if (entries != null) {
+            entries.evict(type, id);
+        }
+    }
+
+    private static Entries getEntries(boolean create) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) return null;
+        Entries entries = (Entries) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (entries == null && create) {
+            entries = new Entries();
+            attributes.setAttribute(ATTRIBUTE, entries, RequestAttributes.SCOPE_REQUEST);
+            attributes.registerDestructionCallback(ATTRIBUTE, entries::log, RequestAttributes.SCOPE_REQUEST);
+        }
+        return entries;
+    }
+
+    /**
+     * Entries of one request, a request is handled by one thread.
+     */
+    private static class Entries {
+
+        private final Map<List<Object>, Object> entities = new HashMap<>();
+
+        private int hits;
+
+        private int misses;
+
+        <T> T get(Class<T> type, Object id, Supplier<T> loader) {
+            List<Object> key = List.of(type, id);
+            Object cached = entities.get(key);
+            if (cached != null) {
+                hits++;
+                return type.cast(cached);
+            }
+            misses++;
+            T entity = loader.get();
+            if (entity != null) {
+                entities.put(key, entity);
+            }
+            return entity;
+        }
+
+        void evict(Class<?> type, Object id) {
+            entities.remove(List.of(type, id));
+        }
+
+        void log() {
+            log.debug("Request cache: {} hits, {} misses", hits, misses);
+        }
+    }
+}
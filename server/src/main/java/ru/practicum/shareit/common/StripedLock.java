@@ -0,0 +1,49 @@
+package ru.practicum.shareit.common;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Fixed set of locks shared by keys with the same hash, so that work on one key is serialized
+ * while work on different keys mostly runs in parallel.
+ */
+public class StripedLock {
+
+    private final ReentrantLock[] locks;
+
+    public StripedLock(int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("stripes must be more then 0");
+        }
+        locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T callWithLock(long key, Supplier<T> action) {
+        ReentrantLock lock = locks[stripe(key)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Locks the stripe of the key and returns it, for work that has to release it later on the same thread.
+     */
+    public Lock lock(long key) {
+        ReentrantLock lock = locks[stripe(key)];
+        lock.lock();
+        return lock;
+    }
+
+    private int stripe(long key) {
+        int hash = Long.hashCode(key);
+        hash ^= hash >>> 16;
+        return Math.floorMod(hash, locks.length);
+    }
+}
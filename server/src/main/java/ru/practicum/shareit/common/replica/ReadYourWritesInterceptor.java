@@ -0,0 +1,67 @@
+package ru.practicum.shareit.common.replica;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps requests of a user on the primary for a while after the user has written,
+ * so the user doesn't miss own changes the replica hasn't received yet.
+ */
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+
+    static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    private static final int CLEANUP_THRESHOLD = 10_000;
+
+    private final long windowNanos;
+
+    private final Map<Long, Long> lastWrites = new ConcurrentHashMap<>();
+
+    public ReadYourWritesInterceptor(Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Long userId = getUserId(request);
+        if (userId != null) {
+            Long lastWrite = lastWrites.get(userId);
+            ReplicaRouting.setPrimaryOnly(lastWrite != null && System.nanoTime() - lastWrite < windowNanos);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        ReplicaRouting.setPrimaryOnly(false);
+        Long userId = getUserId(request);
+        if (userId != null && isWrite(request) && response.getStatus() < 400) {
+            long now = System.nanoTime();
+            if (lastWrites.size() > CLEANUP_THRESHOLD) {
+                lastWrites.values().removeIf(lastWrite -> now - lastWrite >= windowNanos);
+            }
+            lastWrites.put(userId, now);
+        }
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        HttpMethod method = HttpMethod.resolve(request.getMethod());
+        return method != HttpMethod.GET && method != HttpMethod.HEAD && method != HttpMethod.OPTIONS;
+    }
+
+    private static Long getUserId(HttpServletRequest request) {
+        String header = request.getHeader(USER_ID_HEADER);
+        try {
+            return header == null ? null : Long.valueOf(header);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.common.replica;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Read-only transactions started by the annotated class or method may run on the replica.
+ * Has no effect when no replica is configured.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReplicaRead {
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.common.replica;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+@Aspect
+public class ReplicaReadAspect {
+
+    @Around("@within(ru.practicum.shareit.common.replica.ReplicaRead) " +
+            "|| @annotation(ru.practicum.shareit.common.replica.ReplicaRead)")
+    public Object readFromReplica(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean previous = ReplicaRouting.setReplicaRead(true);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReplicaRouting.setReplicaRead(previous);
+        }
+    }
+}
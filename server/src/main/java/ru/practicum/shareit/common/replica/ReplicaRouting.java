@@ -0,0 +1,33 @@
+package ru.practicum.shareit.common.replica;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Per thread routing state: whether the running code may read from the replica
+ * and whether the current request has to see its own writes.
+ */
+class ReplicaRouting {
+
+    private static final ThreadLocal<Boolean> REPLICA_READ = ThreadLocal.withInitial(() -> false);
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = ThreadLocal.withInitial(() -> false);
+
+    /**
+     * @return the previous value, to be restored when the annotated call returns
+     */
+    static boolean setReplicaRead(boolean replicaRead) {
+        boolean previous = REPLICA_READ.get();
+        REPLICA_READ.set(replicaRead);
+        return previous;
+    }
+
+    static void setPrimaryOnly(boolean primaryOnly) {
+        PRIMARY_ONLY.set(primaryOnly);
+    }
+
+    static boolean useReplica() {
+        return REPLICA_READ.get()
+                && !PRIMARY_ONLY.get()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+}
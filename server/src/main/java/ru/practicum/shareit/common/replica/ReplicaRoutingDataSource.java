@@ -0,0 +1,45 @@
+package ru.practicum.shareit.common.replica;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions of {@link ReplicaRead} code to the replica and everything else to the primary.
+ * The choice is made when a connection is taken, so it has to be wrapped into a lazy connection proxy:
+ * transaction managers take the connection before the transaction is marked read-only.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final DataSource primary;
+
+    private final DataSource replica;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+        this.primary = primary;
+        this.replica = replica;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ReplicaRouting.useReplica() ? Target.REPLICA : Target.PRIMARY;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (DataSource dataSource : new DataSource[]{primary, replica}) {
+            if (dataSource instanceof AutoCloseable) {
+                ((AutoCloseable) dataSource).close();
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.common.util;
+
+public class StringUtil {
+
+    public static final char LIKE_ESCAPE = '\\';
+
+    /**
+     * Builds a LIKE pattern matching any string that contains the given text in lower case.
+     */
+    public static String toContainsPattern(String text) {
+        StringBuilder pattern = new StringBuilder("%");
+        for (char c : text.toLowerCase().toCharArray()) {
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                pattern.append(LIKE_ESCAPE);
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+}
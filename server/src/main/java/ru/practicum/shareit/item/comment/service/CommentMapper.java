@@ -7,6 +7,7 @@ import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.service.ItemFactory;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.util.List;
 import java.util.Set;
 
 @Mapper(componentModel = "spring", uses = {ItemFactory.class, UserService.class})
@@ -16,9 +17,9 @@ public interface CommentMapper {
     CommentDto toDto(Comment comment);
 
     @Mapping(source = "author.name", target = "authorName")
-    Set<CommentDto> toDto(Set<Comment> comment);
+    Set<CommentDto> toDto(List<Comment> comment);
 
-    @Mapping(source = "itemId", target = "item")
+    @Mapping(source = "itemId", target = "item", qualifiedByName = "reference")
     @Mapping(source = "userId", target = "author")
     Comment fromDto(CommentDto commentDto, Long itemId, Long userId);
 }
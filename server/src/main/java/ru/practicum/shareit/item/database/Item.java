@@ -3,15 +3,17 @@ package ru.practicum.shareit.item.database;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 import org.hibernate.Hibernate;
+import org.hibernate.annotations.BatchSize;
 import ru.practicum.shareit.booking.database.Booking;
+import ru.practicum.shareit.common.OffsetLimitPageable;
 import ru.practicum.shareit.item.comment.database.Comment;
 import ru.practicum.shareit.requests.database.ItemRequest;
 import ru.practicum.shareit.user.database.User;
 
 import javax.persistence.*;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
-import java.util.Set;
 
 @Getter
 @Setter
@@ -19,10 +21,14 @@ import java.util.Set;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "items")
+@Table(name = "items", indexes = {
+        @Index(name = "idx_items_owner_id", columnList = "owner_id, id"),
+        @Index(name = "idx_items_request_id", columnList = "request_id")
+})
 public class Item {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     private Long id;
 
     private String name;
@@ -43,15 +49,18 @@ public class Item {
             orphanRemoval = true,
             cascade = CascadeType.REMOVE,
             fetch = FetchType.LAZY)
+    @OrderBy("id")
     @JsonIgnore
-    private Set<Booking> bookings = new HashSet<>();
+    private List<Booking> bookings = new ArrayList<>();
 
     @OneToMany(mappedBy = "item",
             orphanRemoval = true,
             cascade = CascadeType.REMOVE,
             fetch = FetchType.LAZY)
+    @BatchSize(size = OffsetLimitPageable.DEFAULT_PAGE_SIZE)
+    @OrderBy("id")
     @JsonIgnore
-    private Set<Comment> comments = new HashSet<>();
+    private List<Comment> comments = new ArrayList<>();
 
     @Transient
     private Booking lastBooking;
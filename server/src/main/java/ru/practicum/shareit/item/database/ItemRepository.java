@@ -1,24 +1,47 @@
 package ru.practicum.shareit.item.database;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.repository.query.QueryByExampleExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.user.database.User;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface ItemRepository extends JpaRepository<Item, Long>, QueryByExampleExecutor<Item> {
+public interface ItemRepository extends JpaRepository<Item, Long> {
 
+    @EntityGraph(attributePaths = {"owner", "request", "request.requester"})
     List<Item> findAllByOwner(User user, Pageable pageable);
 
-    List<Item> findAllByOwnerId(Long id);
-}
-
-
-
-
-
-
-
+    @Override
+    @EntityGraph(attributePaths = {"owner", "request", "request.requester", "comments", "comments.author"})
+    Optional<Item> findById(Long id);
 
+    List<Item> findAllByOwnerId(Long id);
 
+    @EntityGraph(attributePaths = {"owner", "request", "request.requester", "comments", "comments.author"})
+    @Query("select distinct i from Item i where i.request.id in :requestIds order by i.id")
+    List<Item> findAllByRequestIdIn(@Param("requestIds") Collection<Long> requestIds);
+
+    @Query("select new ru.practicum.shareit.item.database.ItemText(i.id, i.name, i.description) from Item i " +
+            "where i.available = true order by i.id")
+    List<ItemText> findAvailableTexts();
+
+    @Query("select i from Item i " +
+            "where i.available = true " +
+            "and (lower(i.name) like :pattern escape '\\' or lower(i.description) like :pattern escape '\\') " +
+            "order by case when lower(i.name) like :pattern escape '\\' then 0 else 1 end, i.id")
+    List<Item> searchAvailableByPattern(@Param("pattern") String pattern, Pageable pageable);
+
+    @Query(value = "select * from items i " +
+            "where i.available " +
+            "and (lower(i.name) like :pattern or lower(i.description) like :pattern) " +
+            "order by greatest(similarity(lower(i.name), :text), similarity(lower(i.description), :text)) desc, i.id",
+            nativeQuery = true)
+    List<Item> searchAvailableByTrigrams(@Param("text") String text,
+                                         @Param("pattern") String pattern,
+                                         Pageable pageable);
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.database;
+
+import lombok.Value;
+
+@Value
+public class ItemText {
+
+    Long id;
+
+    String name;
+
+    String description;
+}
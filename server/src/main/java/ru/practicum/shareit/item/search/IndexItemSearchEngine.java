@@ -0,0 +1,197 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.database.Item;
+import ru.practicum.shareit.item.database.ItemRepository;
+import ru.practicum.shareit.item.database.ItemText;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory trigram inverted index over names and descriptions of available items.
+ * Trigrams of the keyword only narrow down the candidates, every candidate is checked
+ * with {@link String#contains}, so results and their order are the same as of {@link LikeItemSearchEngine}.
+ * Keywords shorter than a trigram are checked against all indexed items.
+ * Only the found page of items is loaded from the database.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "index")
+public class IndexItemSearchEngine implements ItemSearchEngine {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private final ItemRepository itemRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, PostingList> postings = new HashMap<>();
+
+    private final Map<Long, ItemText> texts = new HashMap<>();
+
+    private final PostingList all = new PostingList();
+
+    @PostConstruct
+    public void rebuild() {
+        List<ItemText> available = itemRepository.findAvailableTexts();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            texts.clear();
+            all.clear();
+            available.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Item search index is built for {} items, {} trigrams", texts.size(), postings.size());
+    }
+
+    @Override
+    public void update(Item item) {
+        lock.writeLock().lock();
+        try {
+            remove(item.getId());
+            if (Boolean.TRUE.equals(item.getAvailable())) {
+                add(new ItemText(item.getId(), item.getName(), item.getDescription()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Item> search(String keyword, Pageable pageable) {
+        List<Long> ids = findIds(keyword.toLowerCase(), (int) pageable.getOffset(), pageable.getPageSize());
+        if (ids.isEmpty()) return Collections.emptyList();
+        Map<Long, Item> items = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return ids.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns ids of the page with items matched by name first, then by description, each part ordered by id.
+     */
+    private List<Long> findIds(String text, int offset, int limit) {
+        int needed = offset + limit;
+        List<Long> byName = new ArrayList<>();
+        List<Long> byDescription = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            long[] candidates = findCandidates(text);
+            for (int i = 0; i < candidates.length && byName.size() < needed; i++) {
+                ItemText itemText = texts.get(candidates[i]);
+                if (itemText.getName().contains(text)) {
+                    byName.add(itemText.getId());
+                } else if (byDescription.size() < needed && itemText.getDescription().contains(text)) {
+                    byDescription.add(itemText.getId());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Long> matched = new ArrayList<>(byName);
+        matched.addAll(byDescription);
+        if (offset >= matched.size()) return Collections.emptyList();
+        return matched.subList(offset, Math.min(needed, matched.size()));
+    }
+
+    /**
+     * Intersects posting lists of all trigrams of the text, starting from the shortest one.
+     */
+    private long[] findCandidates(String text) {
+        if (text.length() < GRAM_LENGTH) return toArray(all);
+        List<PostingList> lists = new ArrayList<>();
+        for (long gram : grams(text)) {
+            PostingList list = postings.get(gram);
+            if (list == null) return new long[0];
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(PostingList::size));
+        long[] result = toArray(lists.get(0));
+        int size = result.length;
+        for (int i = 1; i < lists.size() && size > 0; i++) {
+            PostingList list = lists.get(i);
+            int kept = 0;
+            for (int j = 0; j < size; j++) {
+                if (list.contains(result[j])) {
+                    result[kept++] = result[j];
+                }
+            }
+            size = kept;
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    private void add(ItemText itemText) {
+        ItemText lowered = new ItemText(itemText.getId(), lower(itemText.getName()), lower(itemText.getDescription()));
+        texts.put(lowered.getId(), lowered);
+        all.add(lowered.getId());
+        for (long gram : grams(lowered)) {
+            postings.computeIfAbsent(gram, g -> new PostingList()).add(lowered.getId());
+        }
+    }
+
+    private void remove(Long id) {
+        ItemText lowered = texts.remove(id);
+        if (lowered == null) return;
+        all.remove(id);
+        for (long gram : grams(lowered)) {
+            PostingList list = postings.get(gram);
+            list.remove(id);
+            if (list.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static Set<Long> grams(ItemText lowered) {
+        Set<Long> grams = grams(lowered.getName());
+        grams.addAll(grams(lowered.getDescription()));
+        return grams;
+    }
+
+    /**
+     * Packs every three consecutive chars of the text into one long.
+     */
+    private static Set<Long> grams(String text) {
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return grams;
+    }
+
+    private static long[] toArray(PostingList list) {
+        long[] ids = new long[list.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = list.get(i);
+        }
+        return ids;
+    }
+
+    private static String lower(String text) {
+        return text == null ? "" : text.toLowerCase();
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.database.Item;
+
+import java.util.List;
+
+/**
+ * Finds available items which name or description contains the keyword, ignoring case.
+ * The implementation is chosen with the {@code shareit.search.mode} property.
+ */
+public interface ItemSearchEngine {
+
+    List<Item> search(String keyword, Pageable pageable);
+
+    /**
+     * Called after the item is created or updated, engines keeping their own index refresh it here.
+     */
+    default void update(Item item) {
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.database.Item;
+import ru.practicum.shareit.item.database.ItemRepository;
+
+import java.util.List;
+
+import static ru.practicum.shareit.common.util.StringUtil.toContainsPattern;
+
+/**
+ * Portable search with {@code lower(...) like '%keyword%'}, items matched by name go first.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "like", matchIfMissing = true)
+public class LikeItemSearchEngine implements ItemSearchEngine {
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String keyword, Pageable pageable) {
+        return itemRepository.searchAvailableByPattern(toContainsPattern(keyword), pageable);
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.database.Item;
+import ru.practicum.shareit.item.database.ItemRepository;
+
+import java.util.List;
+
+import static ru.practicum.shareit.common.util.StringUtil.toContainsPattern;
+
+/**
+ * Postgres search served by pg_trgm GIN indexes, ranked by trigram similarity.
+ * Requires the indexes from {@code V1_1__add_postgresql_constraints.sql}.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "trigram")
+public class TrigramItemSearchEngine implements ItemSearchEngine {
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String keyword, Pageable pageable) {
+        return itemRepository.searchAvailableByTrigrams(keyword.toLowerCase(), toContainsPattern(keyword), pageable);
+    }
+}
@@ -1,7 +1,9 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
+import org.mapstruct.Named;
 import org.springframework.stereotype.Component;
+import ru.practicum.shareit.common.RequestCache;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.database.Item;
 import ru.practicum.shareit.item.database.ItemRepository;
@@ -13,7 +15,16 @@ public class ItemFactory {
     private final ItemRepository itemRepository;
 
     public Item get(long id) {
-        return itemRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException("Item with id=" + id + "not found"));
+        return RequestCache.get(Item.class, id, () -> itemRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Item with id=" + id + "not found")));
+    }
+
+    /**
+     * Returns an unloaded proxy for mappings that only need the foreign key.
+     * The item is not checked to exist, the caller has to do it.
+     */
+    @Named("reference")
+    public Item getReference(long id) {
+        return itemRepository.getReferenceById(id);
     }
 }
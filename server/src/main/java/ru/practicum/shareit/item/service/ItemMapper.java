@@ -18,7 +18,7 @@ public interface ItemMapper {
     List<ItemDto> toDto(List<Item> items);
 
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.SET_TO_NULL)
-    @Mapping(source = "requestId", target = "request")
+    @Mapping(source = "requestId", target = "request", qualifiedByName = "reference")
     Item fromDto(ItemDto itemDto);
 
     @Mapping(source = "request.id", target = "requestId")
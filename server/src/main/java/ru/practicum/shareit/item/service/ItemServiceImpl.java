@@ -1,14 +1,19 @@
 package ru.practicum.shareit.item.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Example;
-import org.springframework.data.domain.ExampleMatcher;
+import org.hibernate.Hibernate;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import ru.practicum.shareit.booking.database.Booking;
-import ru.practicum.shareit.booking.dto.State;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.ItemBookingIndex;
 import ru.practicum.shareit.common.OffsetLimitPageable;
+import ru.practicum.shareit.common.replica.ReplicaRead;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.comment.database.Comment;
@@ -16,40 +21,50 @@ import ru.practicum.shareit.item.comment.database.CommentRepository;
 import ru.practicum.shareit.item.database.Item;
 import ru.practicum.shareit.item.database.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.user.database.User;
 import ru.practicum.shareit.user.service.UserService;
 
-import java.time.LocalDateTime;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
+@ReplicaRead
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
 
+    private static final String REQUEST_FOREIGN_KEY = "fk_items_request_id";
+
     private final UserService userService;
 
     private final BookingService bookingService;
 
+    private final ItemBookingIndex itemBookingIndex;
+
     private final ItemRepository itemRepository;
 
     private final CommentRepository commentRepository;
 
+    private final ItemSearchEngine itemSearchEngine;
+
     private final ItemMapper itemMapper;
 
     @Override
+    @Transactional(readOnly = true)
     public List<Item> getAllByUserId(Long userId, Integer from, Integer size) {
         User user = userService.getById(userId);
         Pageable pageable = OffsetLimitPageable.of(from, size);
         return itemRepository.findAllByOwner(user, pageable).stream()
                 .map(this::addLastAndNextBookings)
+                .map(ItemServiceImpl::withComments)
                 .sorted(Comparator.comparing(Item::getId))
                 .collect(Collectors.toList());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Item getById(Long id, Long userId) {
         Item item = itemRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Item with id=" + id + "not found"));
@@ -60,13 +75,27 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
+    @Transactional
     public Item create(Item item, Long userId) {
         User user = userService.getById(userId);
         item.setOwner(user);
-        return itemRepository.save(item);
+        Item saved;
+        try {
+            // the request is mapped without loading, it is checked by the foreign key
+            // and flushed here, so that fails inside the try and not on commit
+            saved = itemRepository.saveAndFlush(item);
+        } catch (DataIntegrityViolationException e) {
+            if (violates(e, REQUEST_FOREIGN_KEY)) {
+                throw new NotFoundException("Request not found");
+            }
+            throw e;
+        }
+        updateSearchIndexOnCommit(saved);
+        return saved;
     }
 
     @Override
+    @Transactional
     public Item update(ItemDto itemDto, Long itemId, Long userId) {
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException("Item with id=" + itemId + "not found"));
@@ -74,51 +103,73 @@ public class ItemServiceImpl implements ItemService {
             throw new NotFoundException("Wrong owner");
         }
         itemMapper.updateItemFromDto(itemDto, item);
-        return itemRepository.save(item);
+        Item saved = itemRepository.save(item);
+        updateSearchIndexOnCommit(saved);
+        return saved;
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @Timed("shareit.items.search")
     public List<Item> searchByKeyword(String keyword, Integer from, Integer size) {
-        ExampleMatcher matcher = ExampleMatcher.matchingAny()
-                .withMatcher("name", ExampleMatcher.GenericPropertyMatchers.contains().ignoreCase())
-                .withMatcher("description", ExampleMatcher.GenericPropertyMatchers.contains().ignoreCase());
-        Example<Item> example = Example.of(Item.builder()
-                        .name(keyword)
-                        .description(keyword)
-                        .build(),
-                matcher);
         Pageable pageable = OffsetLimitPageable.of(from, size);
-        return itemRepository.findAll(example, pageable).stream()
-                .filter(Item::getAvailable)
-                .collect(Collectors.toList());
+        List<Item> items = itemSearchEngine.search(keyword, pageable);
+        items.forEach(ItemServiceImpl::withComments);
+        return items;
     }
 
     @Override
+    @Transactional
     public Comment createComment(Comment comment) {
-        try {
-            bookingService.getAllByBooker(comment.getAuthor().getId(), State.PAST, null, null).stream()
-                    .filter(booking -> Objects.equals(booking.getItem().getId(), comment.getItem().getId()))
-                    .findFirst()
-                    .orElseThrow(() -> new NotFoundException("No booking found for this user"));
-        } catch (NotFoundException ex) {
+        Long itemId = comment.getItem().getId();
+        if (!bookingService.hasFinishedBooking(comment.getAuthor().getId(), itemId)) {
+            // the item is mapped without loading, so it is checked only when there is no booking of it
+            if (!itemRepository.existsById(itemId)) {
+                throw new NotFoundException("Item with id=" + itemId + "not found");
+            }
             throw new ValidationException("Comment can be created only after using");
         }
         return commentRepository.save(comment);
     }
 
     private Item addLastAndNextBookings(Item item) {
-        item.setLastBooking(item.getBookings().stream()
-                .sorted(Comparator.comparing(Booking::getEndTime).reversed())
-                .filter(booking -> LocalDateTime.now().isAfter(booking.getEndTime()))
-                .findFirst()
-                .orElse(null)
-        );
-        item.setNextBooking(item.getBookings().stream()
-                .sorted(Comparator.comparing(Booking::getStartTime))
-                .filter(booking -> LocalDateTime.now().isBefore(booking.getStartTime()))
-                .findFirst()
-                .orElse(null)
-        );
+        item.setLastBooking(itemBookingIndex.getLast(item.getId()));
+        item.setNextBooking(itemBookingIndex.getNext(item.getId()));
+        return item;
+    }
+
+    /**
+     * Updates the search index after commit, so a rolled back write never shows up in search results.
+     */
+    private void updateSearchIndexOnCommit(Item item) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            itemSearchEngine.update(item);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                itemSearchEngine.update(item);
+            }
+        });
+    }
+
+    /**
+     * Checks the constraint reported by the database, dialects quote and case its name differently.
+     */
+    private static boolean violates(DataIntegrityViolationException e, String constraint) {
+        if (!(e.getCause() instanceof ConstraintViolationException)) {
+            return false;
+        }
+        String name = ((ConstraintViolationException) e.getCause()).getConstraintName();
+        return name != null && name.toLowerCase().contains(constraint);
+    }
+
+    /**
+     * Loads comments while the transaction is open, items are mapped to dto after it ends.
+     */
+    private static Item withComments(Item item) {
+        Hibernate.initialize(item.getComments());
         return item;
     }
 }
@@ -1,7 +1,10 @@
 package ru.practicum.shareit.requests;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.common.Cursor;
 import ru.practicum.shareit.requests.database.ItemRequest;
 import ru.practicum.shareit.requests.dto.ItemRequestDto;
 import ru.practicum.shareit.requests.service.ItemRequestMapper;
@@ -37,9 +40,15 @@ public class ItemRequestController {
     }
 
     @GetMapping("all")
-    public List<ItemRequestDto> getAll(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                       @RequestParam(name = "from", required = false) Integer from,
-                                       @RequestParam(name = "size", required = false) Integer size) {
-        return itemRequestMapper.toDto(itemRequestService.getAll(userId, from, size));
+    public ResponseEntity<List<ItemRequestDto>> getAll(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                       @RequestParam(name = "from", required = false) Integer from,
+                                                       @RequestParam(name = "size", required = false) Integer size,
+                                                       @RequestParam(name = "after", required = false) String after) {
+        Slice<ItemRequest> requests = after == null
+                ? itemRequestService.getAll(userId, from, size)
+                : itemRequestService.getAllAfter(userId, Cursor.decode(after), size);
+        return ResponseEntity.ok()
+                .headers(Cursor.nextCursorHeaders(requests, request -> new Cursor(request.getCreated(), request.getId())))
+                .body(itemRequestMapper.toDto(requests.getContent()));
     }
 }
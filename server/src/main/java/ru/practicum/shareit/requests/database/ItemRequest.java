@@ -10,9 +10,9 @@ import ru.practicum.shareit.user.database.User;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
-import java.util.Set;
 
 @Getter
 @Setter
@@ -20,11 +20,15 @@ import java.util.Set;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "requests")
+@Table(name = "requests", indexes = {
+        @Index(name = "idx_requests_created_id", columnList = "created DESC, id DESC"),
+        @Index(name = "idx_requests_requester_id_created", columnList = "requester_id, created DESC, id DESC")
+})
 public class ItemRequest {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "requests_seq")
+    @SequenceGenerator(name = "requests_seq", sequenceName = "requests_seq", allocationSize = 50)
     private Long id;
 
     private String description;
@@ -40,8 +44,15 @@ public class ItemRequest {
             orphanRemoval = true,
             cascade = CascadeType.REMOVE,
             fetch = FetchType.LAZY)
+    @OrderBy("id")
     @JsonIgnore
-    private Set<Item> items = new HashSet<>();
+    private List<Item> items = new ArrayList<>();
+
+    /**
+     * Items offered for the request, filled in by the service for a whole page of requests at once.
+     */
+    @Transient
+    private List<Item> answers;
 
     @Override
     public boolean equals(Object o) {
@@ -1,14 +1,26 @@
 package ru.practicum.shareit.requests.database;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
     List<ItemRequest> findAllByRequesterId(Long requesterId);
 
-    Page<ItemRequest> findAllByRequesterIdIsNot(Long requesterId, Pageable pageable);
+    Slice<ItemRequest> findAllByRequesterIdIsNot(Long requesterId, Pageable pageable);
+
+    @Query("select r from ItemRequest r " +
+            "where r.requester.id <> :requesterId " +
+            "and r.created <= :created and (r.created < :created or r.id < :id) " +
+            "order by r.created desc, r.id desc")
+    Slice<ItemRequest> findAllByRequesterIdIsNotAfter(@Param("requesterId") Long requesterId,
+                                                     @Param("created") LocalDateTime created,
+                                                     @Param("id") Long id,
+                                                     Pageable pageable);
 }
@@ -1,7 +1,9 @@
 package ru.practicum.shareit.requests.service;
 
 import lombok.RequiredArgsConstructor;
+import org.mapstruct.Named;
 import org.springframework.stereotype.Component;
+import ru.practicum.shareit.common.RequestCache;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.requests.database.ItemRequest;
 import ru.practicum.shareit.requests.database.ItemRequestRepository;
@@ -14,7 +16,17 @@ public class ItemRequestFactory {
 
     public ItemRequest getById(Long requestId) {
         if (requestId == null) return null;
-        return requestRepository.findById(requestId)
-                .orElseThrow(() -> new NotFoundException("Request not found"));
+        return RequestCache.get(ItemRequest.class, requestId, () -> requestRepository.findById(requestId)
+                .orElseThrow(() -> new NotFoundException("Request not found")));
+    }
+
+    /**
+     * Returns an unloaded proxy for mappings that only need the foreign key.
+     * The request is not checked to exist, the caller has to do it.
+     */
+    @Named("reference")
+    public ItemRequest getReference(Long requestId) {
+        if (requestId == null) return null;
+        return requestRepository.getReferenceById(requestId);
     }
 }
@@ -13,8 +13,10 @@ import java.util.List;
 public interface ItemRequestMapper {
 
     @Mapping(source = "requesterId", target = "requester")
+    @Mapping(target = "answers", ignore = true)
     ItemRequest fromDto(ItemRequestDto itemRequestDto, Long requesterId);
 
+    @Mapping(source = "answers", target = "items")
     ItemRequestDto toDto(ItemRequest itemRequest);
 
     List<ItemRequestDto> toDto(List<ItemRequest> itemRequests);
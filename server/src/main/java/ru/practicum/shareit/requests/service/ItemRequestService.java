@@ -1,5 +1,7 @@
 package ru.practicum.shareit.requests.service;
 
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.common.Cursor;
 import ru.practicum.shareit.requests.database.ItemRequest;
 
 import java.util.List;
@@ -11,5 +13,7 @@ public interface ItemRequestService {
 
     ItemRequest getById(Long requestId, Long requesterId);
 
-    List<ItemRequest> getAll(Long userId, Integer from, Integer size);
+    Slice<ItemRequest> getAll(Long userId, Integer from, Integer size);
+
+    Slice<ItemRequest> getAllAfter(Long userId, Cursor after, Integer size);
 }
@@ -2,17 +2,27 @@ package ru.practicum.shareit.requests.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.common.Cursor;
 import ru.practicum.shareit.common.OffsetLimitPageable;
+import ru.practicum.shareit.common.replica.ReplicaRead;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.database.Item;
+import ru.practicum.shareit.item.database.ItemRepository;
 import ru.practicum.shareit.requests.database.ItemRequest;
 import ru.practicum.shareit.requests.database.ItemRequestRepository;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
+@ReplicaRead
 @RequiredArgsConstructor
 public class ItemRequestServiceImpl implements ItemRequestService {
 
@@ -20,32 +30,72 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     private final UserService userService;
 
+    private final ItemRepository itemRepository;
+
     @Override
+    @Transactional
     public ItemRequest create(ItemRequest itemRequest) {
         return requestRepository.save(itemRequest);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemRequest> getByOwnerId(Long requesterId) {
         validateUserId(requesterId);
-        return requestRepository.findAllByRequesterId(requesterId);
+        return addAnswers(requestRepository.findAllByRequesterId(requesterId));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ItemRequest getById(Long requestId, Long requesterId) {
         validateUserId(requesterId);
-        return requestRepository.findById(requestId)
+        ItemRequest itemRequest = requestRepository.findById(requestId)
                 .orElseThrow(() -> new NotFoundException("Request not found"));
+        addAnswers(List.of(itemRequest));
+        return itemRequest;
     }
 
     @Override
-    public List<ItemRequest> getAll(Long userId, Integer from, Integer size) {
+    @Transactional(readOnly = true)
+    public Slice<ItemRequest> getAll(Long userId, Integer from, Integer size) {
         validateUserId(userId);
-        Pageable pageable = OffsetLimitPageable.of(from, size, Sort.by(Sort.Direction.DESC, "created"));
-        return requestRepository.findAllByRequesterIdIsNot(userId, pageable).getContent();
+        Pageable pageable = OffsetLimitPageable.of(from, size, Sort.by(Sort.Direction.DESC, "created", "id"));
+        Slice<ItemRequest> requests = requestRepository.findAllByRequesterIdIsNot(userId, pageable);
+        addAnswers(requests.getContent());
+        return requests;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<ItemRequest> getAllAfter(Long userId, Cursor after, Integer size) {
+        validateUserId(userId);
+        Pageable pageable = OffsetLimitPageable.of(0, OffsetLimitPageable.limitOf(size));
+        Slice<ItemRequest> requests = requestRepository.findAllByRequesterIdIsNotAfter(
+                userId, after.getTime(), after.getId(), pageable);
+        addAnswers(requests.getContent());
+        return requests;
+    }
+
+    /**
+     * Loads items of all the requests with one query and groups them by request id,
+     * looked up with binary search over the sorted ids instead of a boxed map.
+     */
+    private List<ItemRequest> addAnswers(List<ItemRequest> requests) {
+        if (requests.isEmpty()) return requests;
+        long[] ids = requests.stream().mapToLong(ItemRequest::getId).sorted().toArray();
+        List<List<Item>> answers = new ArrayList<>(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            answers.add(new ArrayList<>());
+        }
+        List<Long> requestIds = Arrays.stream(ids).boxed().collect(Collectors.toList());
+        for (Item item : itemRepository.findAllByRequestIdIn(requestIds)) {
+            answers.get(Arrays.binarySearch(ids, item.getRequest().getId())).add(item);
+        }
+        requests.forEach(request -> request.setAnswers(answers.get(Arrays.binarySearch(ids, request.getId()))));
+        return requests;
     }
 
     private void validateUserId(long id) {
-        userService.getById(id);
+        userService.checkExists(id);
     }
 }
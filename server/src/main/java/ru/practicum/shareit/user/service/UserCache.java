@@ -0,0 +1,141 @@
+package ru.practicum.shareit.user.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.database.User;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of users by id. Entries expire after the TTL, the least recently used one
+ * is dropped when the cache is full. Users are copied in and out, so cached state can't be
+ * changed by callers or shared between persistence contexts.
+ * Hits, misses and size are published as the {@code cache.*} meters of the users cache.
+ */
+@Component
+public class UserCache implements MeterBinder {
+
+    private static final String CACHE_NAME = "users";
+
+    private final int maxSize;
+
+    private final long ttlMillis;
+
+    private final Clock clock;
+
+    private final Map<Long, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    @Autowired
+    public UserCache(@Value("${shareit.users.cache.max-size:10000}") int maxSize,
+                     @Value("${shareit.users.cache.ttl:PT5M}") Duration ttl) {
+        this(maxSize, ttl, Clock.systemUTC());
+    }
+
+    UserCache(int maxSize, Duration ttl, Clock clock) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > UserCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns a copy of the cached user or null when there is no fresh entry.
+     */
+    public User get(Long id) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(id);
+            if (entry != null && entry.expiresAt <= clock.millis()) {
+                entries.remove(id);
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return copy(entry.user);
+    }
+
+    public void put(User user) {
+        Entry entry = new Entry(copy(user), clock.millis() + ttlMillis);
+        synchronized (entries) {
+            entries.put(user.getId(), entry);
+        }
+    }
+
+    public void evict(Long id) {
+        synchronized (entries) {
+            entries.remove(id);
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", this, UserCache::getHits)
+                .tags("cache", CACHE_NAME, "result", "hit")
+                .description("The number of times cache lookup methods have returned a cached value.")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", this, UserCache::getMisses)
+                .tags("cache", CACHE_NAME, "result", "miss")
+                .description("The number of times cache lookup methods have returned an uncached value.")
+                .register(registry);
+        Gauge.builder("cache.size", this, UserCache::size)
+                .tags("cache", CACHE_NAME)
+                .description("The number of entries in this cache.")
+                .register(registry);
+    }
+
+    private static User copy(User user) {
+        return User.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .build();
+    }
+
+    private static class Entry {
+
+        private final User user;
+
+        private final long expiresAt;
+
+        Entry(User user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -10,6 +10,11 @@ public interface UserService {
 
     User getById(Long id);
 
+    /**
+     * Throws NotFoundException when there is no such user, answered from the user cache when possible.
+     */
+    void checkExists(Long id);
+
     User create(User user);
 
     User update(PatchUserDto userDto, Long id);
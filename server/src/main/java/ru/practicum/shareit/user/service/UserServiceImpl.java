@@ -5,6 +5,10 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.common.RequestCache;
 import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.database.User;
@@ -21,34 +25,52 @@ public class UserServiceImpl implements UserService {
 
     private final UserMapper userMapper;
 
+    private final UserCache userCache;
 
     @Override
+    @Transactional(readOnly = true)
     public List<User> getAll() {
         return userRepository.findAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public User getById(Long id) {
-        return userRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException("User with id=" + id + " not found"));
+        return RequestCache.get(User.class, id, () -> {
+            User cached = userCache.get(id);
+            if (cached != null) return cached;
+            User user = userRepository.findById(id)
+                    .orElseThrow(() -> new NotFoundException("User with id=" + id + " not found"));
+            userCache.put(user);
+            return user;
+        });
+    }
+
+    @Override
+    public void checkExists(Long id) {
+        getById(id);
     }
 
     @Override
+    @Transactional
     public User create(User user) {
         try {
-            return userRepository.save(user);
+            // flushed here, so a duplicate email fails inside the try and not on commit
+            return userRepository.saveAndFlush(user);
         } catch (DataIntegrityViolationException e) {
             throw new ConflictException("Email already in use");
         }
     }
 
     @Override
+    @Transactional
     public User update(PatchUserDto userDto, Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("User with id=" + id + " not found"));
         try {
             userMapper.updateUserFromDto(userDto, user);
-            userRepository.save(user);
+            userRepository.saveAndFlush(user);
+            evict(id);
             return user;
         } catch (DataIntegrityViolationException e) {
             throw new ConflictException("Email already in use");
@@ -56,11 +78,29 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public void delete(Long id) {
+        evict(id);
         try {
             userRepository.deleteById(id);
         } catch (EmptyResultDataAccessException e) {
             throw new NotFoundException("User with id=" + id + " not found");
         }
     }
+
+    /**
+     * Evicts the user now and once more after commit, so a read between the two can't cache the old row.
+     */
+    private void evict(Long id) {
+        RequestCache.evict(User.class, id);
+        userCache.evict(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    userCache.evict(id);
+                }
+            });
+        }
+    }
 }
@@ -0,0 +1,80 @@
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS users
+(
+    id    BIGINT              NOT NULL,
+    name  VARCHAR(255)        NOT NULL,
+    email VARCHAR(512) UNIQUE NOT NULL,
+    CONSTRAINT pk_user PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS requests
+(
+    id           BIGINT NOT NULL,
+    description  VARCHAR(512),
+    requester_id BIGINT NOT NULL,
+    created      TIMESTAMP default current_timestamp,
+    CONSTRAINT pk_request PRIMARY KEY (id),
+    CONSTRAINT fk_requests_requester_id FOREIGN KEY (requester_id) REFERENCES users (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_requests_created_id ON requests (created DESC, id DESC);
+
+CREATE TABLE IF NOT EXISTS items
+(
+    id          BIGINT       NOT NULL,
+    name        VARCHAR(255) NOT NULL,
+    description VARCHAR(512) NOT NULL,
+    owner_id    BIGINT       NOT NULL,
+    available   BOOLEAN      NOT NULL,
+    request_id  BIGINT,
+    CONSTRAINT pk_item PRIMARY KEY (id),
+    CONSTRAINT fk_items_owner_id FOREIGN KEY (owner_id) REFERENCES users (id),
+    CONSTRAINT fk_items_request_id FOREIGN KEY (request_id) REFERENCES requests (id)
+);
+
+CREATE TABLE IF NOT EXISTS bookings
+(
+    id         BIGINT           NOT NULL,
+    start_time TIMESTAMP        NOT NULL,
+    end_time   TIMESTAMP        NOT NULL,
+    item_id    BIGINT           NOT NULL,
+    booker_id  BIGINT           NOT NULL,
+    status     VARCHAR(50)      NOT NULL,
+    version    BIGINT DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_booking PRIMARY KEY (id),
+    CONSTRAINT fk_bookings_item_id FOREIGN KEY (item_id) REFERENCES items (id),
+    CONSTRAINT fk_bookings_booker_id FOREIGN KEY (booker_id) REFERENCES users (id)
+);
+
+-- a database created by spring.sql.init before versioning may lack the version column and have the older indexes
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+
+DROP INDEX IF EXISTS idx_bookings_booker_id_start_time;
+
+DROP INDEX IF EXISTS idx_bookings_item_id_start_time;
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_id_start_time_id ON bookings (booker_id, start_time DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_id_start_time_id ON bookings (item_id, start_time DESC, id DESC);
+
+CREATE TABLE IF NOT EXISTS comments
+(
+    id        BIGINT        NOT NULL,
+    text      VARCHAR(1024) NOT NULL,
+    item_id   BIGINT        NOT NULL,
+    author_id BIGINT        NOT NULL,
+    created   TIMESTAMP default current_timestamp,
+    CONSTRAINT pk_comments PRIMARY KEY (id),
+    CONSTRAINT fk_comments_item_id FOREIGN KEY (item_id) REFERENCES items (id),
+    CONSTRAINT fk_comments_author_id FOREIGN KEY (author_id) REFERENCES users (id)
+);
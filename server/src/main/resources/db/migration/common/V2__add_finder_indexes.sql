@@ -0,0 +1,13 @@
+-- bookings.booker_id and bookings.item_id lead idx_bookings_*_start_time_id
+
+CREATE INDEX IF NOT EXISTS idx_items_owner_id ON items (owner_id, id);
+
+CREATE INDEX IF NOT EXISTS idx_items_request_id ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_status_end_time ON bookings (status, end_time);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_id_status_end_time ON bookings (item_id, status, end_time);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item_id ON comments (item_id);
+
+CREATE INDEX IF NOT EXISTS idx_requests_requester_id_created ON requests (requester_id, created DESC, id DESC);
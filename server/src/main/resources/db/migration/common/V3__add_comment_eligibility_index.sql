@@ -0,0 +1,4 @@
+-- comments are allowed to bookers of finished approved bookings of the item, checked with one probe of this index
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_id_item_id_status_end_time
+    ON bookings (booker_id, item_id, status, end_time);
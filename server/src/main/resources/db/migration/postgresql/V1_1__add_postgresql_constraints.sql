@@ -0,0 +1,66 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- approved bookings that overlap can't be resolved without deciding which one stays, so the migration stops
+
+DO
+$$
+    DECLARE
+        overlapping TEXT;
+    BEGIN
+        SELECT string_agg(DISTINCT b1.id::TEXT, ', ')
+        INTO overlapping
+        FROM bookings b1
+                 JOIN bookings b2 ON b2.item_id = b1.item_id AND b2.id <> b1.id
+        WHERE b1.status = 'APPROVED'
+          AND b2.status = 'APPROVED'
+          AND tsrange(b1.start_time, b1.end_time) && tsrange(b2.start_time, b2.end_time);
+        IF overlapping IS NOT NULL THEN
+            RAISE EXCEPTION 'Approved bookings % overlap, reject all but one of each overlapping group', overlapping;
+        END IF;
+    END
+$$;
+
+ALTER TABLE bookings DROP CONSTRAINT IF EXISTS ex_bookings_item_id_approved_period;
+
+ALTER TABLE bookings
+    ADD CONSTRAINT ex_bookings_item_id_approved_period
+        EXCLUDE USING gist (item_id WITH =, tsrange(start_time, end_time) WITH &&)
+        WHERE (status = 'APPROVED');
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm ON items USING gin (lower(name) gin_trgm_ops) WHERE available;
+
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm ON items USING gin (lower(description) gin_trgm_ops) WHERE available;
+
+-- ids of a database created before the sequences continue past the rows it already has
+
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+
+SELECT setval('users_seq', GREATEST((SELECT COALESCE(MAX(id), 0) + 50 FROM users), (SELECT last_value FROM users_seq)));
+
+ALTER TABLE requests ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+ALTER TABLE requests ALTER COLUMN id SET DEFAULT nextval('requests_seq');
+
+SELECT setval('requests_seq', GREATEST((SELECT COALESCE(MAX(id), 0) + 50 FROM requests), (SELECT last_value FROM requests_seq)));
+
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+ALTER TABLE items ALTER COLUMN id SET DEFAULT nextval('items_seq');
+
+SELECT setval('items_seq', GREATEST((SELECT COALESCE(MAX(id), 0) + 50 FROM items), (SELECT last_value FROM items_seq)));
+
+ALTER TABLE bookings ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+ALTER TABLE bookings ALTER COLUMN id SET DEFAULT nextval('bookings_seq');
+
+SELECT setval('bookings_seq', GREATEST((SELECT COALESCE(MAX(id), 0) + 50 FROM bookings), (SELECT last_value FROM bookings_seq)));
+
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+ALTER TABLE comments ALTER COLUMN id SET DEFAULT nextval('comments_seq');
+
+SELECT setval('comments_seq', GREATEST((SELECT COALESCE(MAX(id), 0) + 50 FROM comments), (SELECT last_value FROM comments_seq)));
@@ -0,0 +1,111 @@
+package ru.practicum.shareit.benchmark;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.benchmark.annotation.BenchmarkTest;
+import ru.practicum.shareit.booking.database.Booking;
+import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.item.database.Item;
+import ru.practicum.shareit.user.database.User;
+import ru.practicum.shareit.util.BenchmarkUtil;
+import ru.practicum.shareit.util.JdbcUtil;
+import ru.practicum.shareit.util.QueryCounter;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Persists 100k bookings with JDBC batching and with one round trip per row, which is what
+ * identity ids forced on every insert, and logs how many statements each mode sends.
+ * Inserts are flushed and rolled back, so every run starts from the same table.
+ */
+@Slf4j
+@BenchmarkTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BatchInsertBenchmarkTest {
+
+    private static final int BOOKINGS = 100_000;
+
+    private static final int FLUSH_EVERY = 1000;
+
+    final JdbcTemplate jdbcTemplate;
+
+    final JdbcUtil jdbcUtil;
+
+    final EntityManager entityManager;
+
+    final TransactionTemplate transactionTemplate;
+
+    final QueryCounter queryCounter;
+
+    User booker;
+
+    Item item;
+
+    @BeforeAll
+    void fillDb() {
+        jdbcTemplate.update("delete from bookings");
+        jdbcTemplate.update("delete from comments");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from requests");
+        jdbcTemplate.update("delete from users");
+
+        User owner = User.builder().name("owner").email("owner@mail.ru").build();
+        owner.setId(jdbcUtil.insertUser(owner));
+        booker = User.builder().name("booker").email("booker@mail.ru").build();
+        booker.setId(jdbcUtil.insertUser(booker));
+        item = Item.builder().name("item").description("item").available(true).owner(owner).build();
+        item.setId(jdbcUtil.insertItem(item));
+    }
+
+    @Test
+    void insertBookings_batchedVsRowByRow() {
+        queryCounter.reset();
+        assertEquals(BOOKINGS, insertBookings(50));
+        log.info("[benchmark] 100k bookings in batches of 50: {} statements", queryCounter.count());
+        queryCounter.reset();
+        assertEquals(BOOKINGS, insertBookings(1));
+        log.info("[benchmark] 100k bookings row by row: {} statements", queryCounter.count());
+
+        BenchmarkUtil.measure("100k bookings inserted in batches of 50", 2, 3, () -> insertBookings(50));
+        BenchmarkUtil.measure("100k bookings inserted row by row", 2, 3, () -> insertBookings(1));
+    }
+
+    private int insertBookings(int batchSize) {
+        return transactionTemplate.execute(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            User bookerRef = entityManager.getReference(User.class, booker.getId());
+            Item itemRef = entityManager.getReference(Item.class, item.getId());
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < BOOKINGS; i++) {
+                entityManager.persist(Booking.builder()
+                        .startTime(now.minusHours(i))
+                        .endTime(now.minusHours(i).plusMinutes(30))
+                        .item(itemRef)
+                        .booker(bookerRef)
+                        .status(BookingStatus.APPROVED)
+                        .build());
+                if ((i + 1) % FLUSH_EVERY == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                    bookerRef = entityManager.getReference(User.class, booker.getId());
+                    itemRef = entityManager.getReference(Item.class, item.getId());
+                }
+            }
+            entityManager.flush();
+            int inserted = jdbcTemplate.queryForObject("select count(*) from bookings", Integer.class);
+            status.setRollbackOnly();
+            return inserted;
+        });
+    }
+}
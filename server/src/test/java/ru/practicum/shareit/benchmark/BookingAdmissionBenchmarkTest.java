@@ -0,0 +1,121 @@
+package ru.practicum.shareit.benchmark;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.benchmark.annotation.BenchmarkTest;
+import ru.practicum.shareit.booking.database.Booking;
+import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.ItemBookingIndex;
+import ru.practicum.shareit.item.database.Item;
+import ru.practicum.shareit.user.database.User;
+import ru.practicum.shareit.util.BenchmarkUtil;
+import ru.practicum.shareit.util.JdbcUtil;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures overlap checks of booking admission for an item with a long list of approved bookings.
+ */
+@BenchmarkTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingAdmissionBenchmarkTest {
+
+    private static final int BOOKINGS_PER_ITEM = 20_000;
+
+    final JdbcTemplate jdbcTemplate;
+
+    final JdbcUtil jdbcUtil;
+
+    final ItemBookingIndex itemBookingIndex;
+
+    final BookingService bookingService;
+
+    final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+
+    Item item;
+
+    User booker;
+
+    @BeforeAll
+    void fillDb() {
+        jdbcTemplate.update("delete from bookings");
+        jdbcTemplate.update("delete from comments");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from requests");
+        jdbcTemplate.update("delete from users");
+
+        User owner = User.builder().name("owner").email("owner@mail.ru").build();
+        owner.setId(jdbcUtil.insertUser(owner));
+        booker = User.builder().name("booker").email("booker@mail.ru").build();
+        booker.setId(jdbcUtil.insertUser(booker));
+        item = Item.builder().name("item").description("item").available(true).owner(owner).build();
+        item.setId(jdbcUtil.insertItem(item));
+
+        List<Booking> bookings = new ArrayList<>(BOOKINGS_PER_ITEM);
+        for (int i = 0; i < BOOKINGS_PER_ITEM; i++) {
+            LocalDateTime start = now.plusHours(2L * i + 1);
+            bookings.add(Booking.builder()
+                    .startTime(start)
+                    .endTime(start.plusHours(1))
+                    .item(item)
+                    .booker(booker)
+                    .status(BookingStatus.APPROVED)
+                    .build());
+        }
+        jdbcUtil.insertBookings(bookings);
+        itemBookingIndex.rebuild();
+    }
+
+    @Test
+    void isFree_indexVsBookingsScan() {
+        LocalDateTime freeStart = now.plusHours(BOOKINGS_PER_ITEM);
+        LocalDateTime busyStart = freeStart.plusMinutes(90);
+
+        assertTrue(itemBookingIndex.isFree(item.getId(), freeStart, freeStart.plusMinutes(30)));
+        assertFalse(itemBookingIndex.isFree(item.getId(), busyStart, busyStart.plusMinutes(30)));
+        assertEquals(scanIsFree(freeStart, freeStart.plusMinutes(30)),
+                itemBookingIndex.isFree(item.getId(), freeStart, freeStart.plusMinutes(30)));
+
+        BenchmarkUtil.measure("scan of item bookings",
+                () -> scanIsFree(freeStart, freeStart.plusMinutes(30)));
+        BenchmarkUtil.measure("interval index",
+                () -> itemBookingIndex.isFree(item.getId(), freeStart, freeStart.plusMinutes(30)));
+    }
+
+    @Test
+    void create_admissionLatency() {
+        LocalDateTime freeStart = now.plusHours(BOOKINGS_PER_ITEM);
+
+        BenchmarkUtil.measure("create with overlap check", () -> bookingService.create(booker.getId(),
+                Booking.builder()
+                        .item(item)
+                        .booker(booker)
+                        .startTime(freeStart)
+                        .endTime(freeStart.plusMinutes(30))
+                        .build()));
+    }
+
+    /**
+     * Loads all bookings of the item and looks for an overlapping approved one.
+     */
+    private boolean scanIsFree(LocalDateTime start, LocalDateTime end) {
+        return jdbcTemplate.query("select * from bookings where item_id = ?", jdbcUtil::mapRowToBooking, item.getId())
+                .stream()
+                .noneMatch(booking -> booking.getStatus() == BookingStatus.APPROVED
+                        && booking.getStartTime().isBefore(end)
+                        && booking.getEndTime().isAfter(start));
+    }
+}
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.benchmark;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.benchmark.annotation.BenchmarkTest;
+import ru.practicum.shareit.booking.database.Booking;
+import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.booking.dto.State;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.common.Cursor;
+import ru.practicum.shareit.common.OffsetLimitPageable;
+import ru.practicum.shareit.item.database.Item;
+import ru.practicum.shareit.user.database.User;
+import ru.practicum.shareit.util.BenchmarkUtil;
+import ru.practicum.shareit.util.JdbcUtil;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the cost of the first and the 1000th page of a booker's bookings with offset and cursor pagination.
+ */
+@BenchmarkTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingPaginationBenchmarkTest {
+
+    private static final int BOOKINGS_PER_USER = 100_000;
+
+    private static final int PAGE_SIZE = OffsetLimitPageable.DEFAULT_PAGE_SIZE;
+
+    private static final int DEEP_PAGE = 1000;
+
+    final JdbcTemplate jdbcTemplate;
+
+    final JdbcUtil jdbcUtil;
+
+    final BookingService bookingService;
+
+    long bookerId;
+
+    @BeforeAll
+    void fillDb() {
+        jdbcTemplate.update("delete from bookings");
+        jdbcTemplate.update("delete from comments");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from requests");
+        jdbcTemplate.update("delete from users");
+
+        User owner = User.builder().name("owner").email("owner@mail.ru").build();
+        owner.setId(jdbcUtil.insertUser(owner));
+        User booker = User.builder().name("booker").email("booker@mail.ru").build();
+        bookerId = jdbcUtil.insertUser(booker);
+        booker.setId(bookerId);
+        Item item = Item.builder().name("item").description("item").available(true).owner(owner).build();
+        item.setId(jdbcUtil.insertItem(item));
+
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        List<Booking> bookings = new ArrayList<>(BOOKINGS_PER_USER);
+        for (int i = 0; i < BOOKINGS_PER_USER; i++) {
+            LocalDateTime start = now.minusHours(i);
+            bookings.add(Booking.builder()
+                    .startTime(start)
+                    .endTime(start.plusMinutes(30))
+                    .item(item)
+                    .booker(booker)
+                    .status(BookingStatus.APPROVED)
+                    .build());
+        }
+        jdbcUtil.insertBookings(bookings);
+    }
+
+    @Test
+    void getAllByBooker_firstVsDeepPage() {
+        int from = (DEEP_PAGE - 1) * PAGE_SIZE;
+        Cursor first = cursorAt(0);
+        Cursor deep = cursorAt(from);
+
+        assertEquals(ids(bookingService.getAllByBooker(bookerId, State.ALL, from + 1, PAGE_SIZE)),
+                ids(bookingService.getAllByBookerAfter(bookerId, State.ALL, deep, PAGE_SIZE)));
+
+        BenchmarkUtil.measure("offset page 1",
+                () -> bookingService.getAllByBooker(bookerId, State.ALL, 0, PAGE_SIZE));
+        BenchmarkUtil.measure("offset page " + DEEP_PAGE,
+                () -> bookingService.getAllByBooker(bookerId, State.ALL, from + 1, PAGE_SIZE));
+        BenchmarkUtil.measure("cursor page 1",
+                () -> bookingService.getAllByBookerAfter(bookerId, State.ALL, first, PAGE_SIZE));
+        BenchmarkUtil.measure("cursor page " + DEEP_PAGE,
+                () -> bookingService.getAllByBookerAfter(bookerId, State.ALL, deep, PAGE_SIZE));
+    }
+
+    /**
+     * Cursor of the booking at the given position of the list.
+     */
+    private Cursor cursorAt(int position) {
+        return jdbcTemplate.queryForObject("select start_time, id from bookings where booker_id = ? " +
+                        "order by start_time desc, id desc offset ? rows fetch next 1 rows only",
+                (rs, rowNum) -> new Cursor(rs.getTimestamp("start_time").toLocalDateTime(), rs.getLong("id")),
+                bookerId, position);
+    }
+
+    private static List<Long> ids(List<Booking> bookings) {
+        return bookings.stream().map(Booking::getId).collect(Collectors.toList());
+    }
+}
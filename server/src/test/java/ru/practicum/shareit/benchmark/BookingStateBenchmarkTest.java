@@ -0,0 +1,136 @@
+package ru.practicum.shareit.benchmark;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.benchmark.annotation.BenchmarkTest;
+import ru.practicum.shareit.booking.database.Booking;
+import ru.practicum.shareit.booking.database.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.booking.dto.State;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.common.OffsetLimitPageable;
+import ru.practicum.shareit.item.database.Item;
+import ru.practicum.shareit.user.database.User;
+import ru.practicum.shareit.util.BenchmarkUtil;
+import ru.practicum.shareit.util.JdbcUtil;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares state filtering in SQL with the former approach of filtering fetched pages in memory,
+ * which had to walk through the booking history until a page of matching bookings was collected.
+ */
+@BenchmarkTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingStateBenchmarkTest {
+
+    private static final int BOOKINGS_PER_USER = 100_000;
+
+    private static final int FUTURE_BOOKINGS = 200;
+
+    private static final int PAGE_SIZE = OffsetLimitPageable.DEFAULT_PAGE_SIZE;
+
+    final JdbcTemplate jdbcTemplate;
+
+    final JdbcUtil jdbcUtil;
+
+    final BookingRepository bookingRepository;
+
+    final BookingService bookingService;
+
+    long bookerId;
+
+    @BeforeAll
+    void fillDb() {
+        jdbcTemplate.update("delete from bookings");
+        jdbcTemplate.update("delete from comments");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from requests");
+        jdbcTemplate.update("delete from users");
+
+        User owner = User.builder().name("owner").email("owner@mail.ru").build();
+        owner.setId(jdbcUtil.insertUser(owner));
+        User booker = User.builder().name("booker").email("booker@mail.ru").build();
+        bookerId = jdbcUtil.insertUser(booker);
+        booker.setId(bookerId);
+        Item item = Item.builder().name("item").description("item").available(true).owner(owner).build();
+        item.setId(jdbcUtil.insertItem(item));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings = new ArrayList<>(BOOKINGS_PER_USER);
+        for (int i = 0; i < BOOKINGS_PER_USER; i++) {
+            LocalDateTime start = now.minusHours(BOOKINGS_PER_USER - FUTURE_BOOKINGS - i);
+            bookings.add(Booking.builder()
+                    .startTime(start)
+                    .endTime(start.plusMinutes(30))
+                    .item(item)
+                    .booker(booker)
+                    .status(i % 100 == 0 ? BookingStatus.REJECTED : BookingStatus.APPROVED)
+                    .build());
+        }
+        jdbcUtil.insertBookings(bookings);
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = State.class, names = {"REJECTED", "PAST", "FUTURE"})
+    void getAllByBooker_sqlFilterVsInMemoryFilter(State state) {
+        List<Long> expected = ids(legacyGetAllByBooker(state));
+        List<Long> actual = ids(bookingService.getAllByBooker(bookerId, state, 0, PAGE_SIZE));
+        assertEquals(expected, actual);
+
+        BenchmarkUtil.measure("in-memory filter " + state, () -> legacyGetAllByBooker(state));
+        BenchmarkUtil.measure("sql filter " + state, () -> bookingService.getAllByBooker(bookerId, state, 0, PAGE_SIZE));
+    }
+
+    /**
+     * Fetches pages of all bookings and filters them in memory until a full page of matches is collected.
+     */
+    private List<Booking> legacyGetAllByBooker(State state) {
+        List<Booking> result = new ArrayList<>();
+        int from = 0;
+        while (result.size() < PAGE_SIZE) {
+            Pageable pageable = OffsetLimitPageable.of(from, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "startTime"));
+            List<Booking> page = bookingRepository.findAllByBookerId(bookerId, pageable);
+            if (page.isEmpty()) {
+                break;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            page.stream()
+                    .filter(booking -> matches(state, booking, now))
+                    .limit(PAGE_SIZE - result.size())
+                    .forEach(result::add);
+            from += PAGE_SIZE;
+        }
+        return result;
+    }
+
+    private static boolean matches(State state, Booking booking, LocalDateTime now) {
+        switch (state) {
+            case REJECTED:
+                return booking.getStatus() == BookingStatus.REJECTED;
+            case PAST:
+                return now.isAfter(booking.getEndTime());
+            case FUTURE:
+                return now.isBefore(booking.getStartTime());
+            default:
+                return true;
+        }
+    }
+
+    private static List<Long> ids(List<Booking> bookings) {
+        return bookings.stream().map(Booking::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,143 @@
+package ru.practicum.shareit.benchmark;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.benchmark.annotation.BenchmarkTest;
+import ru.practicum.shareit.booking.database.Booking;
+import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.item.comment.database.Comment;
+import ru.practicum.shareit.item.database.Item;
+import ru.practicum.shareit.user.database.User;
+import ru.practicum.shareit.util.BenchmarkUtil;
+import ru.practicum.shareit.util.ConnectionHoldTimer;
+import ru.practicum.shareit.util.JdbcUtil;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Compares how long a page of bookings keeps a database connection with transactions in the service layer
+ * and with open session in view, which is reproduced by binding an entity manager around the request
+ * the same way its interceptor does.
+ */
+@Slf4j
+@BenchmarkTest
+@Import(ConnectionHoldTimer.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ConnectionHoldBenchmarkTest {
+
+    private static final int BOOKINGS = 50;
+
+    private static final int COMMENTS_PER_ITEM = 2;
+
+    private static final int REQUESTS = 1000;
+
+    final JdbcTemplate jdbcTemplate;
+
+    final JdbcUtil jdbcUtil;
+
+    final MockMvc mockMvc;
+
+    final EntityManagerFactory entityManagerFactory;
+
+    final ConnectionHoldTimer connectionHoldTimer;
+
+    User booker;
+
+    @BeforeAll
+    void fillDb() {
+        jdbcTemplate.update("delete from bookings");
+        jdbcTemplate.update("delete from comments");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from requests");
+        jdbcTemplate.update("delete from users");
+
+        User owner = User.builder().name("owner").email("owner@mail.ru").build();
+        owner.setId(jdbcUtil.insertUser(owner));
+        booker = User.builder().name("booker").email("booker@mail.ru").build();
+        booker.setId(jdbcUtil.insertUser(booker));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            Item item = Item.builder().name("item" + i).description("item").available(true).owner(owner).build();
+            item.setId(jdbcUtil.insertItem(item));
+            for (int j = 0; j < COMMENTS_PER_ITEM; j++) {
+                jdbcUtil.insertComment(Comment.builder().text("comment" + j).item(item).author(booker).build());
+            }
+            bookings.add(Booking.builder()
+                    .startTime(now.minusDays(i + 1))
+                    .endTime(now.minusDays(i))
+                    .item(item)
+                    .booker(booker)
+                    .status(BookingStatus.APPROVED)
+                    .build());
+        }
+        jdbcUtil.insertBookings(bookings);
+    }
+
+    @Test
+    void getAllByBooker_connectionHoldWithAndWithoutOpenSessionInView() {
+        Supplier<MvcResult> inTransactions = this::getBookings;
+        Supplier<MvcResult> inOpenSession = () -> inOpenSession(this::getBookings);
+        BenchmarkUtil.measure("GET /bookings, transactions in the service layer", REQUESTS, REQUESTS, inTransactions);
+        BenchmarkUtil.measure("GET /bookings, open session in view", REQUESTS, REQUESTS, inOpenSession);
+
+        measureConnectionHold("transactions in the service layer", inTransactions);
+        measureConnectionHold("open session in view", inOpenSession);
+    }
+
+    private void measureConnectionHold(String name, Supplier<MvcResult> request) {
+        connectionHoldTimer.reset();
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            request.get();
+        }
+        long requestNanos = System.nanoTime() - start;
+        log.info("[benchmark] GET /bookings, {}: connection held {} of {} us/request, {} connections/request",
+                name, connectionHoldTimer.getHeldNanos() / REQUESTS / 1000, requestNanos / REQUESTS / 1000,
+                (double) connectionHoldTimer.getConnections() / REQUESTS);
+    }
+
+    private MvcResult getBookings() {
+        try {
+            return mockMvc.perform(get("/bookings")
+                            .header("X-Sharer-User-Id", booker.getId())
+                            .param("size", String.valueOf(BOOKINGS)))
+                    .andExpect(status().isOk())
+                    .andReturn();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private <T> T inOpenSession(Supplier<T> request) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        try {
+            return request.get();
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            EntityManagerFactoryUtils.closeEntityManager(entityManager);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.benchmark;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.benchmark.annotation.BenchmarkTest;
+import ru.practicum.shareit.booking.database.Booking;
+import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.item.database.Item;
+import ru.practicum.shareit.item.database.ItemRepository;
+import ru.practicum.shareit.user.database.User;
+import ru.practicum.shareit.util.BenchmarkUtil;
+import ru.practicum.shareit.util.JdbcUtil;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Hydrates the bookings of an item with a long history. Entities share one hash code,
+ * so the former HashSet mapping put all of them into one bucket; it is reproduced by copying
+ * the loaded bookings into a HashSet, which is what PersistentSet did while loading.
+ */
+@BenchmarkTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ItemHydrationBenchmarkTest {
+
+    private static final int BOOKINGS_PER_ITEM = 50_000;
+
+    final JdbcTemplate jdbcTemplate;
+
+    final JdbcUtil jdbcUtil;
+
+    final ItemRepository itemRepository;
+
+    final TransactionTemplate transactionTemplate;
+
+    Item item;
+
+    @BeforeAll
+    void fillDb() {
+        jdbcTemplate.update("delete from bookings");
+        jdbcTemplate.update("delete from comments");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from requests");
+        jdbcTemplate.update("delete from users");
+
+        User owner = User.builder().name("owner").email("owner@mail.ru").build();
+        owner.setId(jdbcUtil.insertUser(owner));
+        User booker = User.builder().name("booker").email("booker@mail.ru").build();
+        booker.setId(jdbcUtil.insertUser(booker));
+        item = Item.builder().name("item").description("item").available(true).owner(owner).build();
+        item.setId(jdbcUtil.insertItem(item));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings = new ArrayList<>(BOOKINGS_PER_ITEM);
+        for (int i = 0; i < BOOKINGS_PER_ITEM; i++) {
+            LocalDateTime start = now.minusHours(i);
+            bookings.add(Booking.builder()
+                    .startTime(start)
+                    .endTime(start.plusMinutes(30))
+                    .item(item)
+                    .booker(booker)
+                    .status(BookingStatus.APPROVED)
+                    .build());
+        }
+        jdbcUtil.insertBookings(bookings);
+    }
+
+    @Test
+    void hydrateBookings_listVsHashSet() {
+        assertEquals(BOOKINGS_PER_ITEM, loadBookings().size());
+
+        BenchmarkUtil.measure("bookings hydrated into a list", this::loadBookings);
+        // takes minutes, so it runs once
+        BenchmarkUtil.measure("bookings hydrated into a HashSet", 0, 1, this::loadBookingsIntoHashSet);
+    }
+
+    private List<Booking> loadBookings() {
+        return transactionTemplate.execute(status -> {
+            Item loaded = itemRepository.findById(item.getId()).orElseThrow();
+            Hibernate.initialize(loaded.getBookings());
+            return loaded.getBookings();
+        });
+    }
+
+    private HashSet<Booking> loadBookingsIntoHashSet() {
+        return transactionTemplate.execute(status -> {
+            Item loaded = itemRepository.findById(item.getId()).orElseThrow();
+            return new HashSet<>(loaded.getBookings());
+        });
+    }
+}
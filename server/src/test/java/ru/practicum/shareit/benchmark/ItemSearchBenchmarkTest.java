@@ -0,0 +1,94 @@
+package ru.practicum.shareit.benchmark;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.benchmark.annotation.BenchmarkTest;
+import ru.practicum.shareit.common.OffsetLimitPageable;
+import ru.practicum.shareit.item.database.Item;
+import ru.practicum.shareit.item.database.ItemRepository;
+import ru.practicum.shareit.item.search.IndexItemSearchEngine;
+import ru.practicum.shareit.item.search.LikeItemSearchEngine;
+import ru.practicum.shareit.user.database.User;
+import ru.practicum.shareit.util.BenchmarkUtil;
+import ru.practicum.shareit.util.JdbcUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the SQL LIKE search with the in-memory trigram index on a catalog of generated items.
+ */
+@BenchmarkTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ItemSearchBenchmarkTest {
+
+    private static final int ITEMS = 50_000;
+
+    private static final List<String> WORDS = List.of("drill", "hammer", "saw", "ladder", "tent", "bike",
+            "camera", "tripod", "kayak", "grill", "projector", "speaker", "scooter", "sander", "router");
+
+    final JdbcTemplate jdbcTemplate;
+
+    final JdbcUtil jdbcUtil;
+
+    final ItemRepository itemRepository;
+
+    final LikeItemSearchEngine likeSearchEngine;
+
+    IndexItemSearchEngine indexSearchEngine;
+
+    @BeforeAll
+    void fillDb() {
+        jdbcTemplate.update("delete from bookings");
+        jdbcTemplate.update("delete from comments");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from requests");
+        jdbcTemplate.update("delete from users");
+
+        User owner = User.builder().name("owner").email("owner@mail.ru").build();
+        owner.setId(jdbcUtil.insertUser(owner));
+        Random random = new Random(42);
+        List<Item> items = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(Item.builder()
+                    .name(word(random) + " " + word(random) + " #" + i)
+                    .description("good " + word(random) + " with " + word(random))
+                    .available(random.nextInt(10) > 0)
+                    .owner(owner)
+                    .build());
+        }
+        jdbcUtil.insertItems(items);
+
+        indexSearchEngine = new IndexItemSearchEngine(itemRepository);
+        indexSearchEngine.rebuild();
+    }
+
+    @Test
+    void search_likeVsIndex() {
+        for (String keyword : List.of("kayak", "proj", "#4999", "er w", "xyz")) {
+            Pageable pageable = OffsetLimitPageable.of(20, 20);
+            assertEquals(ids(likeSearchEngine.search(keyword, pageable)), ids(indexSearchEngine.search(keyword, pageable)));
+
+            BenchmarkUtil.measure("like search '" + keyword + "'", () -> likeSearchEngine.search(keyword, pageable));
+            BenchmarkUtil.measure("index search '" + keyword + "'", () -> indexSearchEngine.search(keyword, pageable));
+        }
+    }
+
+    private static String word(Random random) {
+        return WORDS.get(random.nextInt(WORDS.size()));
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.benchmark.annotation;
+
+import org.junit.jupiter.api.Tag;
+import ru.practicum.shareit.integration.annotation.IT;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a benchmark against the embedded database. Excluded from the default build,
+ * run with {@code mvn test -P benchmark}.
+ */
+@Target({ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@IT
+@Tag("benchmark")
+public @interface BenchmarkTest {
+}
@@ -9,10 +9,13 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import ru.practicum.shareit.booking.database.Booking;
 import ru.practicum.shareit.booking.database.BookingRepository;
 import ru.practicum.shareit.booking.dto.BookingStatus;
 import ru.practicum.shareit.booking.dto.State;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.database.Item;
@@ -37,6 +40,9 @@ class BookingServiceTest {
     @Mock
     UserService userService;
 
+    @Mock
+    ItemBookingIndex itemBookingIndex;
+
     @InjectMocks
     BookingServiceImpl bookingService;
 
@@ -48,20 +54,23 @@ class BookingServiceTest {
     static {
         LocalDateTime now = LocalDateTime.now();
         items = List.of(
-                Item.builder().bookings(Set.of(Booking.builder()  //past
+                Item.builder().bookings(List.of(Booking.builder()  //past
                         .id(1L)
+                        .item(Item.builder().id(ITEM_ID).build())
                         .status(BookingStatus.APPROVED)
                         .startTime(now.minusDays(1))
                         .endTime(now.minusDays(1))
                         .build())).build(),
-                Item.builder().bookings(Set.of(Booking.builder()  //current
+                Item.builder().bookings(List.of(Booking.builder()  //current
                         .id(2L)
+                        .item(Item.builder().id(ITEM_ID).build())
                         .status(BookingStatus.WAITING)
                         .startTime(now.minusDays(1))
                         .endTime(now.plusDays(1))
                         .build())).build(),
-                Item.builder().bookings(Set.of(Booking.builder()  //future
+                Item.builder().bookings(List.of(Booking.builder()  //future
                         .id(3L)
+                        .item(Item.builder().id(ITEM_ID).build())
                         .status(BookingStatus.REJECTED)
                         .startTime(now.plusDays(1))
                         .endTime(now.plusDays(1))
@@ -81,7 +90,7 @@ class BookingServiceTest {
             .description("test item description")
             .available(true)
             .owner(user)
-            .bookings(new HashSet<>())
+            .bookings(new ArrayList<>())
             .build();
 
     final Booking booking = Booking.builder()
@@ -97,6 +106,7 @@ class BookingServiceTest {
 
     @Test
     void create_shouldCreateBookingAndInvokeRepositorySaveWhenUserIsNotOwnerAndItemIsAvailable() {
+        when(itemBookingIndex.isFree(any(), any(), any())).thenReturn(true);
         when(bookingRepository.save(any())).thenAnswer(returnsFirstArg());
 
 
@@ -127,6 +137,15 @@ class BookingServiceTest {
         verifyNoInteractions(bookingRepository);
     }
 
+    @Test
+    void create_shouldThrowConflictExceptionWhenItemIsAlreadyBooked() {
+        when(itemBookingIndex.isFree(any(), any(), any())).thenReturn(false);
+
+        assertThrows(ConflictException.class, () -> bookingService.create(WRONG_USER_ID, booking));
+
+        verifyNoInteractions(bookingRepository);
+    }
+
     @Test
     void getById_shouldThrowNotFoundExceptionWhenRepositoryReturnOptionalEmpty() {
         when(bookingRepository.findById(any())).thenReturn(Optional.empty());
@@ -182,22 +201,74 @@ class BookingServiceTest {
     @Test
     void approve_shouldSetStatusAPPROVEDAndSaveWhenApprovedIsTrue() {
         when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
-        when(bookingRepository.save(any())).thenAnswer(returnsFirstArg());
+        when(bookingRepository.findVersionById(anyLong())).thenReturn(booking.getVersion());
+        when(itemBookingIndex.isFree(any(), any(), any())).thenReturn(true);
+        when(bookingRepository.saveAndFlush(any())).thenAnswer(returnsFirstArg());
         var result = bookingService.approve(USER_ID, anyLong(), true);
 
-        verify(bookingRepository, times(1)).save(booking);
+        verify(bookingRepository, times(1)).saveAndFlush(booking);
+        verify(itemBookingIndex, times(1)).update(booking);
 
         assertNotNull(result);
         assertEquals(BookingStatus.APPROVED, booking.getStatus());
     }
 
+    @Test
+    void approve_shouldThrowConflictExceptionWhenItemIsAlreadyBooked() {
+        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.findVersionById(anyLong())).thenReturn(booking.getVersion());
+        when(itemBookingIndex.isFree(any(), any(), any())).thenReturn(false);
+
+        assertThrows(ConflictException.class, () -> bookingService.approve(USER_ID, 1L, true));
+
+        verify(bookingRepository, never()).saveAndFlush(any());
+        assertEquals(BookingStatus.WAITING, booking.getStatus());
+    }
+
+    @Test
+    void approve_shouldThrowConflictExceptionWhenDatabaseRejectsOverlap() {
+        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.findVersionById(anyLong())).thenReturn(booking.getVersion());
+        when(itemBookingIndex.isFree(any(), any(), any())).thenReturn(true);
+        when(bookingRepository.saveAndFlush(any())).thenThrow(DataIntegrityViolationException.class);
+
+        assertThrows(ConflictException.class, () -> bookingService.approve(USER_ID, 1L, true));
+
+        verify(itemBookingIndex, never()).update(any());
+    }
+
+    @Test
+    void approve_shouldThrowValidationExceptionWhenBookingWasChangedConcurrently() {
+        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.findVersionById(anyLong())).thenReturn(booking.getVersion());
+        when(itemBookingIndex.isFree(any(), any(), any())).thenReturn(true);
+        when(bookingRepository.saveAndFlush(any())).thenThrow(ObjectOptimisticLockingFailureException.class);
+
+        assertThrows(ValidationException.class, () -> bookingService.approve(USER_ID, 1L, true));
+
+        verify(itemBookingIndex, never()).update(any());
+    }
+
+    @Test
+    void approve_shouldThrowValidationExceptionWhenBookingWasApprovedWhileWaitingForLock() {
+        booking.setVersion(0L);
+        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.findVersionById(anyLong())).thenReturn(1L);
+
+        assertThrows(ValidationException.class, () -> bookingService.approve(USER_ID, 1L, true));
+
+        verify(bookingRepository, never()).saveAndFlush(any());
+        verify(itemBookingIndex, never()).isFree(any(), any(), any());
+    }
+
     @Test
     void approve_shouldSetStatusREJECTEDAndSaveWhenApprovedIsTrue() {
         when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
-        when(bookingRepository.save(any())).thenAnswer(returnsFirstArg());
+        when(bookingRepository.findVersionById(anyLong())).thenReturn(booking.getVersion());
+        when(bookingRepository.saveAndFlush(any())).thenAnswer(returnsFirstArg());
         var result = bookingService.approve(USER_ID, anyLong(), false);
 
-        verify(bookingRepository, times(1)).save(booking);
+        verify(bookingRepository, times(1)).saveAndFlush(booking);
 
         assertNotNull(result);
         assertEquals(BookingStatus.REJECTED, booking.getStatus());
@@ -210,37 +281,50 @@ class BookingServiceTest {
         assertThrows(NotFoundException.class, () -> bookingService.getAllByBooker(USER_ID, State.ALL, null, null));
     }
 
+    @Test
+    void getAllByBooker_shouldReturnEmptyListWhenBookerHasNoBookingsInGivenState() {
+        when(bookingRepository.findAllByBookerIdAndStatus(anyLong(), any(), any())).thenReturn(Collections.emptyList());
+        when(bookingRepository.existsByBookerId(USER_ID)).thenReturn(true);
+
+        var result = bookingService.getAllByBooker(USER_ID, State.REJECTED, null, null);
+
+        assertNotNull(result);
+        assertTrue(result.isEmpty());
+    }
+
     @ParameterizedTest(name = "{0}")
     @MethodSource("states")
     void getAllByBooker_shouldReturnBookingsByStateAndByBooker(String name, State state) {
         LocalDateTime now = LocalDateTime.now();
-        List<Booking> bookings = items.stream().flatMap(i -> i.getBookings().stream()).collect(Collectors.toList());
-
-        when(bookingRepository.findAllByBookerId(anyLong(), any())).thenReturn(bookings);
-
-        var result = bookingService.getAllByBooker(USER_ID, state, null, null);
-
-        assertNotNull(result);
-        assertFalse(result.isEmpty());
+        List<Booking> bookings = bookingsByState(state);
 
         switch (state) {
             case ALL:
-                assertEquals(3, result.size());
+                when(bookingRepository.findAllByBookerId(anyLong(), any())).thenReturn(bookings);
                 break;
             case REJECTED:
-                assertEquals(BookingStatus.REJECTED, result.get(0).getStatus());
+                when(bookingRepository.findAllByBookerIdAndStatus(anyLong(), eq(BookingStatus.REJECTED), any()))
+                        .thenReturn(bookings);
                 break;
             case FUTURE:
-                assertTrue(now.isBefore(result.get(0).getStartTime()));
+                when(bookingRepository.findAllByBookerIdAndStartTimeAfter(anyLong(), any(), any()))
+                        .thenReturn(bookings);
                 break;
             case PAST:
-                assertTrue(now.isAfter(result.get(0).getEndTime()));
+                when(bookingRepository.findAllByBookerIdAndEndTimeBefore(anyLong(), any(), any()))
+                        .thenReturn(bookings);
                 break;
             case CURRENT:
-                assertTrue(now.isBefore(result.get(0).getEndTime()) && now.isAfter(result.get(0).getStartTime()));
+                when(bookingRepository.findAllByBookerIdAndStartTimeBeforeAndEndTimeAfter(anyLong(), any(), any(), any()))
+                        .thenReturn(bookings);
         }
-    }
 
+        var result = bookingService.getAllByBooker(USER_ID, state, null, null);
+
+        assertNotNull(result);
+        assertFalse(result.isEmpty());
+        assertResultMatchesState(state, now, result);
+    }
 
     @Test
     void getAllByItemsOwner_shouldThrowNotFoundExceptionWhenUserNotFound() {
@@ -259,14 +343,52 @@ class BookingServiceTest {
     @MethodSource("states")
     void getAllByItemsOwner_shouldReturnBookingsByState(String name, State state) {
         LocalDateTime now = LocalDateTime.now();
-        List<Booking> bookings = items.stream().flatMap(i -> i.getBookings().stream()).collect(Collectors.toList());
-        when(bookingRepository.findAllByItemOwner(any(), any())).thenReturn(bookings);
+        List<Booking> bookings = bookingsByState(state);
+
+        switch (state) {
+            case ALL:
+                when(bookingRepository.findAllByItemOwner(any(), any())).thenReturn(bookings);
+                break;
+            case REJECTED:
+                when(bookingRepository.findAllByItemOwnerAndStatus(any(), eq(BookingStatus.REJECTED), any()))
+                        .thenReturn(bookings);
+                break;
+            case FUTURE:
+                when(bookingRepository.findAllByItemOwnerAndStartTimeAfter(any(), any(), any()))
+                        .thenReturn(bookings);
+                break;
+            case PAST:
+                when(bookingRepository.findAllByItemOwnerAndEndTimeBefore(any(), any(), any()))
+                        .thenReturn(bookings);
+                break;
+            case CURRENT:
+                when(bookingRepository.findAllByItemOwnerAndStartTimeBeforeAndEndTimeAfter(any(), any(), any(), any()))
+                        .thenReturn(bookings);
+        }
 
         var result = bookingService.getAllByItemsOwner(USER_ID, state, null, null);
 
         assertNotNull(result);
         assertFalse(result.isEmpty());
+        assertResultMatchesState(state, now, result);
+    }
+
+    private static List<Booking> bookingsByState(State state) {
+        List<Booking> bookings = items.stream().flatMap(i -> i.getBookings().stream()).collect(Collectors.toList());
+        switch (state) {
+            case PAST:
+                return List.of(bookings.get(0));
+            case CURRENT:
+                return List.of(bookings.get(1));
+            case FUTURE:
+            case REJECTED:
+                return List.of(bookings.get(2));
+            default:
+                return bookings;
+        }
+    }
 
+    private static void assertResultMatchesState(State state, LocalDateTime now, List<Booking> result) {
         switch (state) {
             case ALL:
                 assertEquals(3, result.size());
@@ -294,4 +416,14 @@ class BookingServiceTest {
                 Arguments.of("CURRENT should return current", State.CURRENT)
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    void hasFinishedBooking_shouldAskRepositoryForApprovedBookingEndedBeforeNow() {
+        when(bookingRepository.existsApprovedByBookerIdAndItemIdAndEndTimeBefore(eq(USER_ID), eq(ITEM_ID), any()))
+                .thenReturn(true);
+
+        assertTrue(bookingService.hasFinishedBooking(USER_ID, ITEM_ID));
+        verify(bookingRepository).existsApprovedByBookerIdAndItemIdAndEndTimeBefore(eq(USER_ID), eq(ITEM_ID),
+                argThat(now -> !now.isAfter(LocalDateTime.now())));
+    }
+}
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.database.Booking;
+import ru.practicum.shareit.booking.database.BookingRepository;
+import ru.practicum.shareit.booking.database.BookingSlot;
+import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.item.database.Item;
+import ru.practicum.shareit.user.database.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemBookingIndexTest {
+
+    private static final long ITEM_ID = 1;
+    private static final long BOOKER_ID = 2;
+
+    @Mock
+    BookingRepository bookingRepository;
+
+    @InjectMocks
+    ItemBookingIndex itemBookingIndex;
+
+    final LocalDateTime now = LocalDateTime.now();
+
+    @Test
+    void rebuild_shouldLoadLastAndNextBookingsFromRepository() {
+        when(bookingRepository.findLastSlotsByStatusAndEndTimeBefore(eq(BookingStatus.APPROVED), any()))
+                .thenReturn(List.of(slot(1L, now.minusDays(2), now.minusDays(1))));
+        when(bookingRepository.findSlotsByStatusAndEndTimeAfter(eq(BookingStatus.APPROVED), any()))
+                .thenReturn(List.of(
+                        slot(2L, now.minusHours(1), now.plusHours(1)),
+                        slot(4L, now.plusDays(3), now.plusDays(4)),
+                        slot(3L, now.plusDays(1), now.plusDays(2))));
+
+        itemBookingIndex.rebuild();
+
+        assertEquals(1L, itemBookingIndex.getLast(ITEM_ID).getId());
+        assertEquals(BOOKER_ID, itemBookingIndex.getLast(ITEM_ID).getBooker().getId());
+        assertEquals(3L, itemBookingIndex.getNext(ITEM_ID).getId());
+    }
+
+    @Test
+    void getLastAndGetNext_shouldReturnNullForUnknownItem() {
+        assertNull(itemBookingIndex.getLast(ITEM_ID));
+        assertNull(itemBookingIndex.getNext(ITEM_ID));
+    }
+
+    @Test
+    void update_shouldIgnoreNotApprovedBooking() {
+        itemBookingIndex.update(booking(1L, now.plusDays(1), now.plusDays(2), BookingStatus.REJECTED));
+
+        assertNull(itemBookingIndex.getNext(ITEM_ID));
+    }
+
+    @Test
+    void update_shouldReplaceNextWithEarlierApprovedBooking() {
+        itemBookingIndex.update(booking(1L, now.plusDays(2), now.plusDays(3), BookingStatus.APPROVED));
+        itemBookingIndex.update(booking(2L, now.plusDays(1), now.plusDays(2), BookingStatus.APPROVED));
+
+        assertEquals(2L, itemBookingIndex.getNext(ITEM_ID).getId());
+        assertNull(itemBookingIndex.getLast(ITEM_ID));
+    }
+
+    @Test
+    void getLast_shouldRollFinishedBookingsForward() throws InterruptedException {
+        itemBookingIndex.update(booking(1L, LocalDateTime.now(), LocalDateTime.now().plusNanos(1_000_000),
+                BookingStatus.APPROVED));
+        itemBookingIndex.update(booking(2L, now.plusDays(1), now.plusDays(2), BookingStatus.APPROVED));
+
+        Thread.sleep(10);
+
+        assertEquals(1L, itemBookingIndex.getLast(ITEM_ID).getId());
+        assertEquals(2L, itemBookingIndex.getNext(ITEM_ID).getId());
+    }
+
+    @Test
+    void isFree_shouldReturnTrueForUnknownItem() {
+        assertTrue(itemBookingIndex.isFree(ITEM_ID, now.plusDays(1), now.plusDays(2)));
+    }
+
+    @Test
+    void isFree_shouldDetectOverlapWithApprovedBookings() {
+        itemBookingIndex.update(booking(1L, now.plusDays(1), now.plusDays(2), BookingStatus.APPROVED));
+        itemBookingIndex.update(booking(2L, now.plusDays(4), now.plusDays(5), BookingStatus.APPROVED));
+
+        assertTrue(itemBookingIndex.isFree(ITEM_ID, now.plusHours(1), now.plusDays(1)));
+        assertTrue(itemBookingIndex.isFree(ITEM_ID, now.plusDays(2), now.plusDays(4)));
+        assertTrue(itemBookingIndex.isFree(ITEM_ID, now.plusDays(5), now.plusDays(6)));
+        assertFalse(itemBookingIndex.isFree(ITEM_ID, now.plusHours(1), now.plusDays(1).plusHours(1)));
+        assertFalse(itemBookingIndex.isFree(ITEM_ID, now.plusDays(1).plusHours(1), now.plusDays(1).plusHours(2)));
+        assertFalse(itemBookingIndex.isFree(ITEM_ID, now.plusDays(3), now.plusDays(6)));
+        assertFalse(itemBookingIndex.isFree(ITEM_ID, now, now.plusDays(10)));
+    }
+
+    private static BookingSlot slot(Long id, LocalDateTime start, LocalDateTime end) {
+        return new BookingSlot(id, ITEM_ID, BOOKER_ID, start, end);
+    }
+
+    private static Booking booking(Long id, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        return Booking.builder()
+                .id(id)
+                .item(Item.builder().id(ITEM_ID).build())
+                .booker(User.builder().id(BOOKER_ID).build())
+                .startTime(start)
+                .endTime(end)
+                .status(status)
+                .build();
+    }
+}
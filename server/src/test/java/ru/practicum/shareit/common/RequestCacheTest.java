@@ -0,0 +1,95 @@
+package ru.practicum.shareit.common;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.database.Item;
+import ru.practicum.shareit.user.database.User;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RequestCacheTest {
+
+    static final long ID = 1;
+
+    final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void resetRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void get_shouldLoadOncePerRequest() {
+        startRequest();
+
+        User first = RequestCache.get(User.class, ID, this::loadUser);
+        User second = RequestCache.get(User.class, ID, this::loadUser);
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+
+        startRequest();
+        RequestCache.get(User.class, ID, this::loadUser);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_shouldLoadEveryTimeOutsideOfRequest() {
+        RequestCache.get(User.class, ID, this::loadUser);
+        RequestCache.get(User.class, ID, this::loadUser);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_shouldKeepTypesApart() {
+        startRequest();
+
+        RequestCache.get(User.class, ID, this::loadUser);
+        Item item = RequestCache.get(Item.class, ID, () -> Item.builder().id(ID).build());
+
+        assertEquals(ID, item.getId());
+    }
+
+    @Test
+    void get_shouldNotRememberFailures() {
+        startRequest();
+
+        assertThrows(NotFoundException.class, () -> RequestCache.get(User.class, ID, () -> {
+            loads.incrementAndGet();
+            throw new NotFoundException("User not found");
+        }));
+        RequestCache.get(User.class, ID, this::loadUser);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evict_shouldLoadAgain() {
+        startRequest();
+
+        RequestCache.get(User.class, ID, this::loadUser);
+        RequestCache.evict(User.class, ID);
+        RequestCache.get(User.class, ID, this::loadUser);
+
+        assertEquals(2, loads.get());
+    }
+
+    private User loadUser() {
+        loads.incrementAndGet();
+        return User.builder().id(ID).build();
+    }
+
+    private void startRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+}
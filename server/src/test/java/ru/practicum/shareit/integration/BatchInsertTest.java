@@ -0,0 +1,98 @@
+package ru.practicum.shareit.integration;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.database.Booking;
+import ru.practicum.shareit.booking.database.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.integration.annotation.IT;
+import ru.practicum.shareit.item.comment.database.Comment;
+import ru.practicum.shareit.item.comment.database.CommentRepository;
+import ru.practicum.shareit.item.database.Item;
+import ru.practicum.shareit.item.database.ItemRepository;
+import ru.practicum.shareit.user.database.User;
+import ru.practicum.shareit.util.JdbcUtil;
+import ru.practicum.shareit.util.QueryCounter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that bulk saves take ids from pooled sequences and go out in JDBC batches
+ * instead of one round trip per row.
+ */
+@IT
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BatchInsertTest {
+
+    private static final int ROWS = 100;
+
+    // two batches of 50 per table, and at most three sequence calls per table
+    private static final long INSERT_QUERIES = 3 * (2 + 3);
+
+    final JdbcTemplate jdbcTemplate;
+
+    final JdbcUtil jdbcUtil;
+
+    final QueryCounter queryCounter;
+
+    final TransactionTemplate transactionTemplate;
+
+    final ItemRepository itemRepository;
+
+    final BookingRepository bookingRepository;
+
+    final CommentRepository commentRepository;
+
+    @BeforeEach
+    void clearDb() {
+        jdbcTemplate.update("delete from bookings");
+        jdbcTemplate.update("delete from comments");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from requests");
+        jdbcTemplate.update("delete from users");
+    }
+
+    @Test
+    void saveAll_shouldInsertItemsBookingsAndCommentsInBatches() {
+        User user = User.builder().name("user").email("user@mail.ru").build();
+        user.setId(jdbcUtil.insertUser(user));
+        Item existing = Item.builder().name("existing").description("existing").available(true).owner(user).build();
+        existing.setId(jdbcUtil.insertItem(existing));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Item> items = new ArrayList<>();
+        List<Booking> bookings = new ArrayList<>();
+        List<Comment> comments = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            items.add(Item.builder().name("item" + i).description("item").available(true).owner(user).build());
+            bookings.add(Booking.builder()
+                    .startTime(now.minusDays(i + 1))
+                    .endTime(now.minusDays(i))
+                    .item(existing)
+                    .booker(user)
+                    .status(BookingStatus.APPROVED)
+                    .build());
+            comments.add(Comment.builder().text("comment" + i).item(existing).author(user).created(now).build());
+        }
+
+        queryCounter.reset();
+        transactionTemplate.executeWithoutResult(status -> {
+            itemRepository.saveAll(items);
+            bookingRepository.saveAll(bookings);
+            commentRepository.saveAll(comments);
+        });
+        queryCounter.assertAtMost(INSERT_QUERIES);
+
+        assertEquals(ROWS + 1, jdbcTemplate.queryForObject("select count(*) from items", Long.class));
+        assertEquals(ROWS, jdbcTemplate.queryForObject("select count(*) from bookings", Long.class));
+        assertEquals(ROWS, jdbcTemplate.queryForObject("select count(*) from comments", Long.class));
+    }
+}
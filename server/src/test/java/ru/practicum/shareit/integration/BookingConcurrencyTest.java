@@ -0,0 +1,171 @@
+package ru.practicum.shareit.integration;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.database.Booking;
+import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.integration.annotation.IT;
+import ru.practicum.shareit.item.database.Item;
+import ru.practicum.shareit.user.database.User;
+import ru.practicum.shareit.util.JdbcUtil;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@IT
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingConcurrencyTest {
+
+    private static final int THREADS = 64;
+
+    final JdbcTemplate jdbcTemplate;
+
+    final JdbcUtil jdbcUtil;
+
+    final BookingService bookingService;
+
+    final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+    final User ownerUser = User.builder()
+            .name("owner user")
+            .email("ownerUser@mail.ru")
+            .build();
+
+    final User anotherUser = User.builder()
+            .name("another user")
+            .email("anotherUser@mail.ru")
+            .build();
+
+    final Item item = Item.builder()
+            .name("test item")
+            .description("test item description")
+            .available(true)
+            .owner(ownerUser)
+            .build();
+
+    @BeforeEach
+    void clearDb() {
+        jdbcTemplate.update("delete from bookings");
+        jdbcTemplate.update("delete from comments");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from requests");
+        jdbcTemplate.update("delete from users");
+        ownerUser.setId(jdbcUtil.insertUser(ownerUser));
+        anotherUser.setId(jdbcUtil.insertUser(anotherUser));
+        item.setId(jdbcUtil.insertItem(item));
+    }
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void approve_shouldApproveBookingOnlyOnceWhenApprovedConcurrently() throws Exception {
+        var bookingId = jdbcUtil.insertBooking(booking(LocalDateTime.now().plusDays(1)));
+
+        var results = runConcurrently(i -> () -> bookingService.approve(ownerUser.getId(), bookingId, i % 2 == 0));
+
+        assertEquals(1, countSuccessful(results, ValidationException.class));
+        var statuses = jdbcTemplate.queryForList("select status from bookings", String.class);
+        assertEquals(1, statuses.size());
+        assertTrue(List.of("APPROVED", "REJECTED").contains(statuses.get(0)));
+        assertEquals(1L, jdbcTemplate.queryForObject("select version from bookings", Long.class));
+    }
+
+    @Test
+    void approve_shouldApproveOnlyOneOfOverlappingBookingsWhenApprovedConcurrently() throws Exception {
+        var start = LocalDateTime.now().plusDays(1);
+        var bookingIds = new ArrayList<Long>();
+        for (int i = 0; i < THREADS; i++) {
+            bookingIds.add(jdbcUtil.insertBooking(booking(start.plusSeconds(i))));
+        }
+
+        var results = runConcurrently(i -> () -> bookingService.approve(ownerUser.getId(), bookingIds.get(i), true));
+
+        assertEquals(1, countSuccessful(results, ConflictException.class));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "select count(*) from bookings where status = 'APPROVED'", Integer.class));
+    }
+
+    @Test
+    void create_shouldKeepEveryBookingWhenCreatedConcurrently() throws Exception {
+        var start = LocalDateTime.now().plusDays(1);
+
+        var results = runConcurrently(i -> () -> bookingService.create(anotherUser.getId(), Booking.builder()
+                .item(item)
+                .booker(anotherUser)
+                .startTime(start.plusHours(i))
+                .endTime(start.plusHours(i).plusMinutes(30))
+                .build()));
+
+        assertEquals(THREADS, countSuccessful(results, ConflictException.class));
+        assertEquals(THREADS, jdbcTemplate.queryForObject("select count(*) from bookings", Integer.class));
+    }
+
+    private Booking booking(LocalDateTime start) {
+        return Booking.builder()
+                .startTime(start)
+                .endTime(start.plusHours(1))
+                .item(item)
+                .booker(anotherUser)
+                .status(BookingStatus.WAITING)
+                .build();
+    }
+
+    private List<Future<Booking>> runConcurrently(Task task) throws InterruptedException {
+        var ready = new CountDownLatch(THREADS);
+        var start = new CountDownLatch(1);
+        var futures = new ArrayList<Future<Booking>>();
+        for (int i = 0; i < THREADS; i++) {
+            Callable<Booking> action = task.get(i);
+            futures.add(executor.submit(() -> {
+                ready.countDown();
+                start.await();
+                return action.call();
+            }));
+        }
+        ready.await(10, TimeUnit.SECONDS);
+        start.countDown();
+        return futures;
+    }
+
+    private static long countSuccessful(List<Future<Booking>> futures, Class<? extends RuntimeException> expected)
+            throws InterruptedException {
+        long successful = 0;
+        for (Future<Booking> future : futures) {
+            try {
+                future.get(30, TimeUnit.SECONDS);
+                successful++;
+            } catch (ExecutionException e) {
+                assertTrue(expected.isInstance(e.getCause()), () -> "Unexpected exception " + e.getCause());
+            } catch (TimeoutException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return successful;
+    }
+
+    private interface Task {
+        Callable<Booking> get(int index);
+    }
+}
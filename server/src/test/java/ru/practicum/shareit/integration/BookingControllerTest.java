@@ -7,17 +7,20 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.booking.database.Booking;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.dto.BookingStatus;
 import ru.practicum.shareit.booking.dto.State;
+import ru.practicum.shareit.common.Cursor;
 import ru.practicum.shareit.integration.annotation.IT;
 import ru.practicum.shareit.item.database.Item;
 import ru.practicum.shareit.user.database.User;
 import ru.practicum.shareit.util.JdbcUtil;
 
 import java.time.LocalDateTime;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -55,7 +58,7 @@ public class BookingControllerTest {
             .description("test item description")
             .available(true)
             .owner(ownerUser)
-            .bookings(new HashSet<>())
+            .bookings(new ArrayList<>())
             .build();
 
     final Booking booking = Booking.builder()
@@ -230,6 +233,40 @@ public class BookingControllerTest {
         assertEquals(BookingStatus.APPROVED, bookingFromDb.getStatus());
     }
 
+    @Test
+    void approve_shouldAnswer409WhenItemIsAlreadyBookedForThisPeriod() throws Exception {
+        var anotherUserId = jdbcUtil.insertUser(anotherUser);
+        var userId = jdbcUtil.insertUser(ownerUser);
+        ownerUser.setId(userId);
+        anotherUser.setId(anotherUserId);
+        item.setAvailable(true);
+        var itemId = jdbcUtil.insertItem(item);
+        item.setId(itemId);
+        var firstBookingId = jdbcUtil.insertBooking(booking);
+        var secondBookingId = jdbcUtil.insertBooking(booking);
+        var bookingDto = BookingInputDto.builder()
+                .itemId(itemId)
+                .startTime(booking.getStartTime().minusHours(1))
+                .endTime(booking.getEndTime().plusHours(1))
+                .build();
+
+        mockMvc.perform(patch(BASE_URL + "/{bookingId}", firstBookingId)
+                        .header("X-Sharer-User-Id", userId)
+                        .param("approved", String.valueOf(true)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(patch(BASE_URL + "/{bookingId}", secondBookingId)
+                        .header("X-Sharer-User-Id", userId)
+                        .param("approved", String.valueOf(true)))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(post(BASE_URL + "/")
+                        .contentType("application/json")
+                        .content(mapper.writeValueAsString(bookingDto))
+                        .header("X-Sharer-User-Id", anotherUserId))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void approve_shouldSetStatusToREJECTEDWhenSendFalse() throws Exception {
         var anotherUserId = jdbcUtil.insertUser(anotherUser);
@@ -291,4 +328,72 @@ public class BookingControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()", is(1)));
     }
+
+    @Test
+    void getAllByItemsOwner_shouldReturnTheSamePagesWithCursorAsWithOffset() throws Exception {
+        var anotherUserId = jdbcUtil.insertUser(anotherUser);
+        var userId = jdbcUtil.insertUser(ownerUser);
+        ownerUser.setId(userId);
+        anotherUser.setId(anotherUserId);
+        item.setId(jdbcUtil.insertItem(item));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        for (int i = 0; i < 5; i++) {
+            // two bookings per start time, so ids have to break the ties
+            jdbcUtil.insertBooking(Booking.builder()
+                    .startTime(start.plusHours(i / 2))
+                    .endTime(start.plusDays(1))
+                    .item(item)
+                    .booker(anotherUser)
+                    .status(BookingStatus.WAITING)
+                    .build());
+        }
+
+        var all = mockMvc.perform(get(BASE_URL + "/owner")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("from", "0")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andReturn();
+        List<Long> expected = bookingIds(all);
+
+        List<Long> paged = new ArrayList<>();
+        var page = mockMvc.perform(get(BASE_URL + "/owner")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("from", "0")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andReturn();
+        paged.addAll(bookingIds(page));
+        int pages = 1;
+        while (page.getResponse().getHeader(Cursor.NEXT_CURSOR_HEADER) != null) {
+            page = mockMvc.perform(get(BASE_URL + "/owner")
+                            .header("X-Sharer-User-Id", userId)
+                            .param("size", "2")
+                            .param("after", page.getResponse().getHeader(Cursor.NEXT_CURSOR_HEADER)))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            paged.addAll(bookingIds(page));
+            pages++;
+        }
+
+        assertEquals(3, pages);
+        assertEquals(5, expected.size());
+        assertEquals(expected, paged);
+    }
+
+    @Test
+    void getAllByBooker_shouldAnswer400WithInvalidCursor() throws Exception {
+        var anotherUserId = jdbcUtil.insertUser(anotherUser);
+
+        mockMvc.perform(get(BASE_URL + "/")
+                        .header("X-Sharer-User-Id", anotherUserId)
+                        .param("after", "not a cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private List<Long> bookingIds(MvcResult result) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        mapper.readTree(result.getResponse().getContentAsString()).forEach(node -> ids.add(node.get("id").asLong()));
+        return ids;
+    }
 }
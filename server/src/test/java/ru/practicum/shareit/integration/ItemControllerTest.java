@@ -8,6 +8,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.database.Booking;
+import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.dto.BookingStatus;
 import ru.practicum.shareit.integration.annotation.IT;
 import ru.practicum.shareit.item.comment.database.Comment;
@@ -18,12 +19,14 @@ import ru.practicum.shareit.user.database.User;
 import ru.practicum.shareit.util.JdbcUtil;
 
 import java.time.LocalDateTime;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -55,7 +58,7 @@ public class ItemControllerTest {
             .description("test item description")
             .available(true)
             .owner(user)
-            .bookings(new HashSet<>())
+            .bookings(new ArrayList<>())
             .build();
 
 
@@ -98,6 +101,42 @@ public class ItemControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void getAllByUserId_shouldReturnNextBookingAfterApprove() throws Exception {
+        var userId = jdbcUtil.insertUser(user);
+        user.setId(userId);
+        var bookerId = jdbcUtil.insertUser(User.builder().name("booker").email("booker@mail.ru").build());
+        var itemId = jdbcUtil.insertItem(item);
+        var bookingDto = BookingInputDto.builder()
+                .itemId(itemId)
+                .startTime(LocalDateTime.now().plusDays(1))
+                .endTime(LocalDateTime.now().plusDays(2))
+                .build();
+
+        var result = mockMvc.perform(post("/bookings")
+                        .contentType("application/json")
+                        .content(mapper.writeValueAsString(bookingDto))
+                        .header("X-Sharer-User-Id", bookerId))
+                .andExpect(status().isOk())
+                .andReturn();
+        var bookingId = mapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+
+        mockMvc.perform(get(BASE_URL + "/").header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].nextBooking").isEmpty());
+
+        mockMvc.perform(patch("/bookings/{bookingId}", bookingId)
+                        .header("X-Sharer-User-Id", userId)
+                        .param("approved", String.valueOf(true)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get(BASE_URL + "/").header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].nextBooking.id", is((int) bookingId)))
+                .andExpect(jsonPath("$[0].nextBooking.bookerId", is((int) bookerId)))
+                .andExpect(jsonPath("$[0].lastBooking").isEmpty());
+    }
+
     @Test
     void getById_shouldAnswer404WithWrongItemId() throws Exception {
         var userId = jdbcUtil.insertUser(user);
@@ -117,6 +156,45 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.name", is(item.getName())));
     }
 
+    @Test
+    void getById_shouldAnswer304WhenNotModified() throws Exception {
+        var userId = jdbcUtil.insertUser(user);
+        user.setId(userId);
+        var id = jdbcUtil.insertItem(item);
+
+        String etag = mockMvc.perform(get(BASE_URL + "/{id}", id).header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get(BASE_URL + "/{id}", id)
+                        .header("X-Sharer-User-Id", userId)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        jdbcTemplate.update("update items set name = 'changed' where id = ?", id);
+
+        mockMvc.perform(get(BASE_URL + "/{id}", id)
+                        .header("X-Sharer-User-Id", userId)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("changed")));
+    }
+
+    @Test
+    void getAllByUserId_shouldNotTagList() throws Exception {
+        var userId = jdbcUtil.insertUser(user);
+        user.setId(userId);
+        jdbcUtil.insertItem(item);
+
+        mockMvc.perform(get(BASE_URL).header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"));
+        mockMvc.perform(get(BASE_URL + "/").header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"));
+    }
+
     @Test
     void create_shouldAnswer404WithWrongUserId() throws Exception {
         var itemDto = ItemDto.builder().name("name").description("desc").available(true).build();
@@ -193,6 +271,36 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.length()", is(1)));
     }
 
+    @Test
+    void searchByKeyword_shouldReturnOnlyAvailableItemsAndExactPageSize() throws Exception {
+        var userId = jdbcUtil.insertUser(user);
+        user.setId(userId);
+        for (int i = 0; i < 3; i++) {
+            jdbcUtil.insertItem(Item.builder().name("Drill " + i).description("drill").available(true).owner(user).build());
+        }
+        jdbcUtil.insertItem(Item.builder().name("Drill").description("broken drill").available(false).owner(user).build());
+        jdbcUtil.insertItem(Item.builder().name("Hammer").description("not a dRiLl").available(true).owner(user).build());
+        jdbcUtil.insertItem(Item.builder().name("100% tool").description("for nothing").available(true).owner(user).build());
+
+        mockMvc.perform(get(BASE_URL + SEARCH_URL).param("text", "dRiLL"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(4)))
+                .andExpect(jsonPath("$[3].name", is("Hammer")));
+
+        mockMvc.perform(get(BASE_URL + SEARCH_URL)
+                        .param("text", "drill")
+                        .param("from", "1")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(2)))
+                .andExpect(jsonPath("$[0].name", is("Drill 1")));
+
+        mockMvc.perform(get(BASE_URL + SEARCH_URL).param("text", "0%"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(1)))
+                .andExpect(jsonPath("$[0].name", is("100% tool")));
+    }
+
     @Test
     void createComment_shouldAnswer400WithNoBooking() throws Exception {
         var userId = jdbcUtil.insertUser(user);
@@ -237,4 +345,51 @@ public class ItemControllerTest {
         assertNotNull(result);
         assertEquals(commentDto.getText(), result.getText());
     }
-}
\ No newline at end of file
+
+    @Test
+    void createComment_shouldFindBookingBehindLongHistory() throws Exception {
+        var userId = jdbcUtil.insertUser(user);
+        user.setId(userId);
+        var id = jdbcUtil.insertItem(item);
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings = new ArrayList<>();
+        bookings.add(pastBooking(id, userId, now.minusDays(100), BookingStatus.APPROVED));
+        for (int i = 0; i < 60; i++) {
+            Item other = Item.builder().name("other" + i).description("other").available(true).owner(user).build();
+            bookings.add(pastBooking(jdbcUtil.insertItem(other), userId, now.minusDays(i + 1), BookingStatus.APPROVED));
+        }
+        jdbcUtil.insertBookings(bookings);
+        var commentDto = CommentDto.builder().text("some comment").build();
+
+        mockMvc.perform(post(BASE_URL + "/{itemId}" + COMMENT_URL, id)
+                        .contentType("application/json")
+                        .header("X-Sharer-User-Id", userId)
+                        .content(mapper.writeValueAsString(commentDto)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void createComment_shouldAnswer400WithRejectedBooking() throws Exception {
+        var userId = jdbcUtil.insertUser(user);
+        user.setId(userId);
+        var id = jdbcUtil.insertItem(item);
+        jdbcUtil.insertBooking(pastBooking(id, userId, LocalDateTime.now().minusDays(1), BookingStatus.REJECTED));
+        var commentDto = CommentDto.builder().text("some comment").build();
+
+        mockMvc.perform(post(BASE_URL + "/{itemId}" + COMMENT_URL, id)
+                        .contentType("application/json")
+                        .header("X-Sharer-User-Id", userId)
+                        .content(mapper.writeValueAsString(commentDto)))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static Booking pastBooking(long itemId, long bookerId, LocalDateTime start, BookingStatus status) {
+        return Booking.builder()
+                .item(Item.builder().id(itemId).build())
+                .booker(User.builder().id(bookerId).build())
+                .startTime(start)
+                .endTime(start.plusHours(1))
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.integration;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.integration.annotation.IT;
+import ru.practicum.shareit.item.comment.database.Comment;
+import ru.practicum.shareit.item.database.Item;
+import ru.practicum.shareit.requests.database.ItemRequest;
+import ru.practicum.shareit.user.database.User;
+import ru.practicum.shareit.util.JdbcUtil;
+import ru.practicum.shareit.util.QueryCounter;
+
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that item listing and item details run in a fixed number of queries whatever the page size is.
+ */
+@IT
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ItemQueryCountTest {
+
+    private static final long LISTING_QUERIES = 3;
+
+    private static final long DETAILS_QUERIES = 1;
+
+    final JdbcTemplate jdbcTemplate;
+
+    final JdbcUtil jdbcUtil;
+
+    final MockMvc mockMvc;
+
+    final QueryCounter queryCounter;
+
+    User owner;
+
+    Long lastItemId;
+
+    @BeforeEach
+    void clearDb() {
+        jdbcTemplate.update("delete from bookings");
+        jdbcTemplate.update("delete from comments");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from requests");
+        jdbcTemplate.update("delete from users");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void getAllByUserId_shouldRunBoundedNumberOfQueries(int items) throws Exception {
+        fillDb(items);
+
+        queryCounter.reset();
+        mockMvc.perform(get("/items").header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(items)))
+                .andExpect(jsonPath("$[0].comments.length()", is(2)));
+
+        queryCounter.assertAtMost(LISTING_QUERIES);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10})
+    void getById_shouldRunBoundedNumberOfQueries(int items) throws Exception {
+        fillDb(items);
+
+        queryCounter.reset();
+        mockMvc.perform(get("/items/{id}", lastItemId).header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments.length()", is(2)));
+
+        queryCounter.assertAtMost(DETAILS_QUERIES);
+    }
+
+    /**
+     * Every item answers its own request and has comments of two different authors.
+     */
+    private void fillDb(int items) {
+        owner = User.builder().name("owner").email("owner@mail.ru").build();
+        owner.setId(jdbcUtil.insertUser(owner));
+        for (int i = 0; i < items; i++) {
+            User requester = User.builder().name("requester" + i).email("requester" + i + "@mail.ru").build();
+            requester.setId(jdbcUtil.insertUser(requester));
+            ItemRequest request = ItemRequest.builder().description("request" + i).requester(requester).build();
+            request.setId(jdbcUtil.insertRequest(request));
+            Item item = Item.builder().name("item" + i).description("item" + i)
+                    .available(true).owner(owner).request(request).build();
+            item.setId(jdbcUtil.insertItem(item));
+            jdbcUtil.insertComment(Comment.builder().text("first").item(item).author(requester).build());
+            jdbcUtil.insertComment(Comment.builder().text("second").item(item).author(owner).build());
+            lastItemId = item.getId();
+        }
+    }
+}
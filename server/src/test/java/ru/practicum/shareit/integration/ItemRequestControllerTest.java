@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.common.Cursor;
 import ru.practicum.shareit.integration.annotation.IT;
 import ru.practicum.shareit.requests.database.ItemRequest;
 import ru.practicum.shareit.requests.dto.ItemRequestDto;
@@ -18,6 +19,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -188,4 +190,35 @@ public class ItemRequestControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()", is(1)));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAll_shouldReturnNextPageAfterCursor() throws Exception {
+        var userId = jdbcUtil.insertUser(ownerUser);
+        var anotherUserId = jdbcUtil.insertUser(anotherUser);
+        ownerUser.setId(userId);
+        var firstId = jdbcUtil.insertRequest(itemRequest);
+        var secondId = jdbcUtil.insertRequest(itemRequest);
+        var thirdId = jdbcUtil.insertRequest(itemRequest);
+
+        var firstPage = mockMvc.perform(get(BASE_URL + "/all")
+                        .param("size", "2")
+                        .header("X-Sharer-User-Id", anotherUserId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(2)))
+                .andExpect(jsonPath("$[0].id", is((int) thirdId)))
+                .andExpect(jsonPath("$[1].id", is((int) secondId)))
+                .andExpect(header().string(Cursor.HAS_NEXT_HEADER, "true"))
+                .andExpect(header().exists(Cursor.NEXT_CURSOR_HEADER))
+                .andReturn();
+
+        mockMvc.perform(get(BASE_URL + "/all")
+                        .param("size", "2")
+                        .param("after", firstPage.getResponse().getHeader(Cursor.NEXT_CURSOR_HEADER))
+                        .header("X-Sharer-User-Id", anotherUserId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(1)))
+                .andExpect(jsonPath("$[0].id", is((int) firstId)))
+                .andExpect(header().string(Cursor.HAS_NEXT_HEADER, "false"))
+                .andExpect(header().doesNotExist(Cursor.NEXT_CURSOR_HEADER));
+    }
+}
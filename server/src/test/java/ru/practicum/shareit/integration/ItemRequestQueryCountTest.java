@@ -0,0 +1,101 @@
+package ru.practicum.shareit.integration;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.integration.annotation.IT;
+import ru.practicum.shareit.item.comment.database.Comment;
+import ru.practicum.shareit.item.database.Item;
+import ru.practicum.shareit.requests.database.ItemRequest;
+import ru.practicum.shareit.user.database.User;
+import ru.practicum.shareit.util.JdbcUtil;
+import ru.practicum.shareit.util.QueryCounter;
+
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that request feeds load items of all requests at once, whatever the number of requests is.
+ */
+@IT
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ItemRequestQueryCountTest {
+
+    private static final long FEED_QUERIES = 4;
+
+    final JdbcTemplate jdbcTemplate;
+
+    final JdbcUtil jdbcUtil;
+
+    final MockMvc mockMvc;
+
+    final QueryCounter queryCounter;
+
+    User requester;
+
+    User owner;
+
+    @BeforeEach
+    void clearDb() {
+        jdbcTemplate.update("delete from bookings");
+        jdbcTemplate.update("delete from comments");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from requests");
+        jdbcTemplate.update("delete from users");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void getByOwnerId_shouldRunBoundedNumberOfQueries(int requests) throws Exception {
+        fillDb(requests);
+
+        queryCounter.reset();
+        mockMvc.perform(get("/requests").header("X-Sharer-User-Id", requester.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(requests)))
+                .andExpect(jsonPath("$[0].items.length()", is(2)))
+                .andExpect(jsonPath("$[0].items[0].comments.length()", is(1)));
+
+        queryCounter.assertAtMost(FEED_QUERIES);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void getAll_shouldRunBoundedNumberOfQueries(int requests) throws Exception {
+        fillDb(requests);
+
+        queryCounter.reset();
+        mockMvc.perform(get("/requests/all").header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(requests)))
+                .andExpect(jsonPath("$[0].items.length()", is(2)));
+
+        queryCounter.assertAtMost(FEED_QUERIES);
+    }
+
+    /**
+     * Every request gets two items of the same owner, each item has a comment.
+     */
+    private void fillDb(int requests) {
+        requester = User.builder().name("requester").email("requester@mail.ru").build();
+        requester.setId(jdbcUtil.insertUser(requester));
+        owner = User.builder().name("owner").email("owner@mail.ru").build();
+        owner.setId(jdbcUtil.insertUser(owner));
+        for (int i = 0; i < requests; i++) {
+            ItemRequest request = ItemRequest.builder().description("request" + i).requester(requester).build();
+            request.setId(jdbcUtil.insertRequest(request));
+            for (int j = 0; j < 2; j++) {
+                Item item = Item.builder().name("item" + i + j).description("item" + i + j)
+                        .available(true).owner(owner).request(request).build();
+                item.setId(jdbcUtil.insertItem(item));
+                jdbcUtil.insertComment(Comment.builder().text("comment").item(item).author(requester).build());
+            }
+        }
+    }
+}
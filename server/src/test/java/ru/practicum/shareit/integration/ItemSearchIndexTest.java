@@ -0,0 +1,124 @@
+package ru.practicum.shareit.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.common.OffsetLimitPageable;
+import ru.practicum.shareit.integration.annotation.IT;
+import ru.practicum.shareit.item.database.Item;
+import ru.practicum.shareit.item.database.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.search.IndexItemSearchEngine;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.database.User;
+import ru.practicum.shareit.util.JdbcUtil;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.common.util.StringUtil.toContainsPattern;
+
+@IT
+@TestPropertySource(properties = "shareit.search.mode=index")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ItemSearchIndexTest {
+
+    final JdbcTemplate jdbcTemplate;
+
+    final JdbcUtil jdbcUtil;
+
+    final MockMvc mockMvc;
+
+    final ObjectMapper mapper;
+
+    final ItemRepository itemRepository;
+
+    final IndexItemSearchEngine searchEngine;
+
+    final ItemService itemService;
+
+    final TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void clearDb() {
+        jdbcTemplate.update("delete from bookings");
+        jdbcTemplate.update("delete from comments");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from requests");
+        jdbcTemplate.update("delete from users");
+    }
+
+    @Test
+    void search_shouldReturnTheSameAsSqlAfterRebuildCreateAndUpdate() throws Exception {
+        User user = User.builder().name("owner").email("owner@mail.ru").build();
+        user.setId(jdbcUtil.insertUser(user));
+        jdbcUtil.insertItem(Item.builder().name("Old drill").description("still works").available(true).owner(user).build());
+        jdbcUtil.insertItem(Item.builder().name("Broken saw").description("drill it").available(false).owner(user).build());
+        searchEngine.rebuild();
+
+        List<String> names = List.of("Power drill", "Drill bits", "Hammer", "Saw", "Ladder", "Drill_press");
+        List<String> descriptions = List.of("makes holes", "for any DRILL", "nails", "cuts wood", "tall", "100% steel");
+        Long lastId = null;
+        for (int i = 0; i < names.size(); i++) {
+            var itemDto = ItemDto.builder().name(names.get(i)).description(descriptions.get(i)).available(true).build();
+            var result = mockMvc.perform(post("/items")
+                            .contentType("application/json")
+                            .content(mapper.writeValueAsString(itemDto))
+                            .header("X-Sharer-User-Id", user.getId()))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            lastId = mapper.readValue(result.getResponse().getContentAsString(), Item.class).getId();
+        }
+        mockMvc.perform(patch("/items/{id}", lastId)
+                        .contentType("application/json")
+                        .content(mapper.writeValueAsString(ItemDto.builder().description("drill stand").build()))
+                        .header("X-Sharer-User-Id", user.getId()))
+                .andExpect(status().isOk());
+
+        for (String keyword : List.of("drill", "DRILL", "dr", "l", "saw", "_", "0%", "holes", "nothing")) {
+            for (int from : List.of(0, 1, 3)) {
+                var pageable = OffsetLimitPageable.of(from, 2);
+                assertEquals(ids(itemRepository.searchAvailableByPattern(toContainsPattern(keyword), pageable)),
+                        ids(searchEngine.search(keyword, pageable)), keyword + " from " + from);
+            }
+        }
+        assertFalse(searchEngine.search("drill", OffsetLimitPageable.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void search_shouldNotChangeWhenWriteIsRolledBack() {
+        User user = User.builder().name("owner").email("owner@mail.ru").build();
+        user.setId(jdbcUtil.insertUser(user));
+        Item item = itemService.create(Item.builder().name("Drill").description("makes holes").available(true).build(),
+                user.getId());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            itemService.create(Item.builder().name("Saw").description("cuts wood").available(true).build(),
+                    user.getId());
+            itemService.update(ItemDto.builder().name("Hammer").build(), item.getId(), user.getId());
+            status.setRollbackOnly();
+        });
+
+        Pageable pageable = OffsetLimitPageable.of(0, 10);
+        assertEquals(List.of(item.getId()), ids(searchEngine.search("drill", pageable)));
+        assertTrue(searchEngine.search("hammer", pageable).isEmpty());
+        assertTrue(searchEngine.search("saw", pageable).isEmpty());
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.integration;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Migrates a database created by the schema.sql that the server ran before Flyway, keeping its rows.
+ */
+public class LegacySchemaMigrationTest {
+
+    @Test
+    void migrate_shouldUpgradeLegacySchema() throws SQLException {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:legacy;DB_CLOSE_DELAY=-1", "test", "test");
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/legacy/schema.sql"));
+        }
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("insert into users (name, email) values ('user', 'user@mail.com')");
+
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/common")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from users", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from bookings where version <> 0", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject("select next value for bookings_seq", Long.class));
+    }
+}
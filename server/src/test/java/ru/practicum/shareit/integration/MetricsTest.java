@@ -0,0 +1,81 @@
+package ru.practicum.shareit.integration;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.integration.annotation.IT;
+import ru.practicum.shareit.item.database.Item;
+import ru.practicum.shareit.user.database.User;
+import ru.practicum.shareit.util.JdbcUtil;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that the Prometheus endpoint publishes endpoint, repository, pool, JVM, cache and service metrics.
+ * Runs on the pooled data source, the embedded test database has no pool metrics.
+ */
+@IT
+@AutoConfigureMetrics
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class MetricsTest {
+
+    final JdbcTemplate jdbcTemplate;
+
+    final JdbcUtil jdbcUtil;
+
+    final MockMvc mockMvc;
+
+    @BeforeEach
+    void clearDb() {
+        jdbcTemplate.update("delete from bookings");
+        jdbcTemplate.update("delete from comments");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from requests");
+        jdbcTemplate.update("delete from users");
+    }
+
+    @Test
+    void prometheus_shouldPublishMetrics() throws Exception {
+        User owner = User.builder().name("owner").email("owner@mail.ru").build();
+        owner.setId(jdbcUtil.insertUser(owner));
+        User booker = User.builder().name("booker").email("booker@mail.ru").build();
+        booker.setId(jdbcUtil.insertUser(booker));
+        Item item = Item.builder().name("drill").description("drill").available(true).owner(owner).build();
+        item.setId(jdbcUtil.insertItem(item));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        mockMvc.perform(get("/items/search").param("text", "drill").header("X-Sharer-User-Id", booker.getId()))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/bookings")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"itemId\":" + item.getId() + ",\"start\":\"" + start + "\"," +
+                                "\"end\":\"" + start.plusDays(1) + "\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket{")))
+                .andExpect(content().string(containsString("uri=\"/items/search\"")))
+                .andExpect(content().string(containsString("spring_data_repository_invocations_seconds_count{")))
+                .andExpect(content().string(containsString("hikaricp_connections_active{")))
+                .andExpect(content().string(containsString("jvm_gc_memory_allocated_bytes_total{")))
+                .andExpect(content().string(containsString("cache_gets_total{")))
+                .andExpect(content().string(containsString("cache=\"users\"")))
+                .andExpect(content().string(containsString("shareit_bookings_create_seconds_count{")))
+                .andExpect(content().string(containsString("shareit_items_search_seconds_count{")));
+    }
+}
@@ -0,0 +1,241 @@
+package ru.practicum.shareit.integration;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.database.Booking;
+import ru.practicum.shareit.booking.database.BookingRepository;
+import ru.practicum.shareit.booking.database.BookingSpecifications;
+import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.booking.dto.State;
+import ru.practicum.shareit.common.Cursor;
+import ru.practicum.shareit.common.OffsetLimitPageable;
+import ru.practicum.shareit.integration.annotation.IT;
+import ru.practicum.shareit.item.comment.database.Comment;
+import ru.practicum.shareit.item.database.Item;
+import ru.practicum.shareit.item.database.ItemRepository;
+import ru.practicum.shareit.requests.database.ItemRequest;
+import ru.practicum.shareit.requests.database.ItemRequestRepository;
+import ru.practicum.shareit.user.database.User;
+import ru.practicum.shareit.util.JdbcUtil;
+import ru.practicum.shareit.util.SqlRecorder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs repository finders on a seeded dataset and checks with EXPLAIN that every table
+ * of every statement they send is read through an index condition, not scanned,
+ * and that the index is one the migrations create.
+ */
+@IT
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class QueryPlanTest {
+
+    private static final int USERS = 20;
+
+    private static final int ITEMS_PER_USER = 10;
+
+    private static final int BOOKINGS_PER_ITEM = 10;
+
+    private static final Sort BY_START_DESC = Sort.by(Sort.Direction.DESC, "startTime", "id");
+
+    // "/* PUBLIC.IDX_ITEMS_OWNER_ID: OWNER_ID = ?1 */" reads an index range, "/* PUBLIC.ITEMS.tableScan */"
+    // and "/* PUBLIC.PRIMARY_KEY_4 */" read the whole table
+    private static final Pattern TABLE_ACCESS = Pattern.compile("/\\* PUBLIC\\.([A-Z0-9_.]+)(:[^*]*)? \\*/");
+
+    final JdbcTemplate jdbcTemplate;
+
+    final JdbcUtil jdbcUtil;
+
+    final SqlRecorder sqlRecorder;
+
+    final TransactionTemplate transactionTemplate;
+
+    final ItemRepository itemRepository;
+
+    final BookingRepository bookingRepository;
+
+    final ItemRequestRepository requestRepository;
+
+    User user;
+
+    Item item;
+
+    ItemRequest request;
+
+    @BeforeEach
+    void clearDb() {
+        jdbcTemplate.update("delete from bookings");
+        jdbcTemplate.update("delete from comments");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from requests");
+        jdbcTemplate.update("delete from users");
+        fillDb();
+    }
+
+    @Test
+    void itemFinders_shouldUseIndexes() {
+        assertIndexed(() -> transactionTemplate.executeWithoutResult(status ->
+                itemRepository.findAllByOwner(user, OffsetLimitPageable.of(0, 10))
+                        .forEach(found -> Hibernate.initialize(found.getComments()))));
+        assertIndexed(() -> itemRepository.findById(item.getId()));
+        assertIndexed(() -> itemRepository.findAllByOwnerId(user.getId()));
+        assertIndexed(() -> itemRepository.findAllByRequestIdIn(List.of(request.getId())));
+    }
+
+    @Test
+    void bookingFinders_shouldUseIndexes() {
+        LocalDateTime now = LocalDateTime.now();
+        Pageable page = OffsetLimitPageable.of(0, 10, BY_START_DESC);
+
+        assertIndexed(() -> bookingRepository.findAllByBookerId(user.getId(), page));
+        assertIndexed(() -> bookingRepository.findAllByBookerIdAndStatus(user.getId(), BookingStatus.WAITING, page));
+        assertIndexed(() -> bookingRepository.findAllByBookerIdAndEndTimeBefore(user.getId(), now, page));
+        assertIndexed(() -> bookingRepository.findAllByBookerIdAndStartTimeAfter(user.getId(), now, page));
+        assertIndexed(() -> bookingRepository.findAllByBookerIdAndStartTimeBeforeAndEndTimeAfter(
+                user.getId(), now, now, page));
+        assertIndexed(() -> bookingRepository.existsByBookerId(user.getId()));
+        assertIndexed(() -> bookingRepository.existsApprovedByBookerIdAndItemIdAndEndTimeBefore(
+                user.getId(), item.getId(), now));
+        assertIndexed(() -> bookingRepository.findAllByItemOwner(user, page));
+        assertIndexed(() -> bookingRepository.findAllByItemOwnerAndStatus(user, BookingStatus.WAITING, page));
+        assertIndexed(() -> bookingRepository.findAllByItemOwnerAndEndTimeBefore(user, now, page));
+        assertIndexed(() -> bookingRepository.findAllByItemOwnerAndStartTimeAfter(user, now, page));
+        assertIndexed(() -> bookingRepository.findAllByItemOwnerAndStartTimeBeforeAndEndTimeAfter(
+                user, now, now, page));
+        assertIndexed(() -> bookingRepository.existsByItemOwnerId(user.getId()));
+        assertIndexed(() -> bookingRepository.findSlotsByStatusAndEndTimeAfter(BookingStatus.APPROVED, now));
+        assertIndexed(() -> bookingRepository.findLastSlotsByStatusAndEndTimeBefore(BookingStatus.APPROVED, now));
+        assertIndexed(() -> bookingRepository.findAllAfter(
+                BookingSpecifications.bookedBy(user.getId()).and(BookingSpecifications.inState(State.ALL, now)),
+                new Cursor(now, Long.MAX_VALUE), 10));
+        assertIndexed(() -> bookingRepository.findAllAfter(
+                BookingSpecifications.ofItemsOwnedBy(user.getId()).and(BookingSpecifications.inState(State.ALL, now)),
+                new Cursor(now, Long.MAX_VALUE), 10));
+    }
+
+    @Test
+    void requestFinders_shouldUseIndexes() {
+        assertIndexed(() -> requestRepository.findAllByRequesterId(user.getId()));
+        assertIndexed(() -> requestRepository.findAllByRequesterIdIsNotAfter(
+                user.getId(), LocalDateTime.now(), Long.MAX_VALUE, OffsetLimitPageable.of(0, 10)));
+    }
+
+    private void assertIndexed(Runnable finder) {
+        sqlRecorder.start();
+        finder.run();
+        List<String> statements = sqlRecorder.stop();
+        assertFalse(statements.isEmpty(), "No statements were recorded");
+        Map<String, String> leadingColumns = getLeadingColumns();
+        Set<String> indexedColumns = getIndexedColumns(leadingColumns);
+        for (String sql : statements) {
+            String plan = explain(sql);
+            Matcher matcher = TABLE_ACCESS.matcher(plan);
+            while (matcher.find()) {
+                String access = matcher.group(1);
+                assertTrue(matcher.group(2) != null && !access.endsWith(".tableScan"),
+                        "Full scan of " + access + " in plan:\n" + plan);
+                assertTrue(indexedColumns.contains(leadingColumns.get(access)),
+                        "No migration index on " + leadingColumns.get(access) + " in plan:\n" + plan);
+            }
+        }
+    }
+
+    /**
+     * Maps index names to the first column they are ordered by.
+     */
+    private Map<String, String> getLeadingColumns() {
+        Map<String, String> leadingColumns = new HashMap<>();
+        jdbcTemplate.query("select index_name, table_name, column_name from information_schema.index_columns " +
+                        "where table_schema = 'PUBLIC' and ordinal_position = 1",
+                rs -> {
+                    leadingColumns.put(rs.getString("index_name"),
+                            rs.getString("table_name") + "." + rs.getString("column_name"));
+                });
+        return leadingColumns;
+    }
+
+    /**
+     * Columns that lead a primary key, unique or migration index. H2 also indexes every foreign key
+     * on its own and may pick those indexes, but Postgres does not create them.
+     */
+    private Set<String> getIndexedColumns(Map<String, String> leadingColumns) {
+        return leadingColumns.entrySet().stream()
+                .filter(entry -> !entry.getKey().startsWith("FK_"))
+                .map(Map.Entry::getValue)
+                .collect(Collectors.toSet());
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.query("explain " + sql, ps -> {
+            for (int i = 1; i <= ps.getParameterMetaData().getParameterCount(); i++) {
+                ps.setObject(i, null);
+            }
+        }, rs -> {
+            rs.next();
+            return rs.getString(1);
+        });
+    }
+
+    private void fillDb() {
+        LocalDateTime now = LocalDateTime.now();
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            User u = User.builder().name("user" + i).email("user" + i + "@mail.ru").build();
+            u.setId(jdbcUtil.insertUser(u));
+            users.add(u);
+        }
+        user = users.get(0);
+        for (User u : users) {
+            ItemRequest r = ItemRequest.builder().description("request").requester(u).build();
+            r.setId(jdbcUtil.insertRequest(r));
+            if (u == user) {
+                request = r;
+            }
+        }
+
+        List<Item> items = new ArrayList<>();
+        for (User u : users) {
+            for (int i = 0; i < ITEMS_PER_USER; i++) {
+                items.add(Item.builder().name("item").description("item").available(true).owner(u).build());
+            }
+        }
+        jdbcUtil.insertItems(items);
+        item = Item.builder().name("item").description("item").available(true).owner(user).request(request).build();
+        item.setId(jdbcUtil.insertItem(item));
+        jdbcUtil.insertComment(Comment.builder().text("comment").item(item).author(users.get(1)).build());
+
+        List<Long> itemIds = jdbcTemplate.queryForList("select id from items", Long.class);
+        List<Booking> bookings = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            for (int i = 0; i < BOOKINGS_PER_ITEM; i++) {
+                LocalDateTime start = now.plusDays(i - BOOKINGS_PER_ITEM / 2);
+                bookings.add(Booking.builder()
+                        .startTime(start)
+                        .endTime(start.plusHours(1))
+                        .item(Item.builder().id(itemId).build())
+                        .booker(users.get(i % USERS))
+                        .status(BookingStatus.APPROVED)
+                        .build());
+            }
+        }
+        jdbcUtil.insertBookings(bookings);
+    }
+}
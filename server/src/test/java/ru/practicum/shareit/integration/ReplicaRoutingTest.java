@@ -0,0 +1,118 @@
+package ru.practicum.shareit.integration;
+
+import lombok.RequiredArgsConstructor;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.integration.annotation.IT;
+import ru.practicum.shareit.item.database.Item;
+import ru.practicum.shareit.user.database.User;
+import ru.practicum.shareit.util.JdbcUtil;
+
+import javax.sql.DataSource;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the server on two databases that are not replicated, so every response shows which one it was read from.
+ */
+@IT
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "shareit.datasource.replica.url=" + ReplicaRoutingTest.REPLICA_URL,
+        "shareit.datasource.replica.read-your-writes-window=PT1M"
+})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1";
+
+    final JdbcTemplate jdbcTemplate;
+
+    final JdbcUtil jdbcUtil;
+
+    final MockMvc mockMvc;
+
+    JdbcTemplate replicaJdbcTemplate;
+
+    User owner;
+
+    User reader;
+
+    Item item;
+
+    @BeforeEach
+    void clearDb() {
+        DataSource replica = new DriverManagerDataSource(REPLICA_URL, "test", "test");
+        Flyway.configure().dataSource(replica).locations("classpath:db/migration/common").load().migrate();
+        replicaJdbcTemplate = new JdbcTemplate(replica);
+        for (JdbcTemplate template : new JdbcTemplate[]{jdbcTemplate, replicaJdbcTemplate}) {
+            template.update("delete from bookings");
+            template.update("delete from comments");
+            template.update("delete from items");
+            template.update("delete from requests");
+            template.update("delete from users");
+        }
+
+        owner = User.builder().name("owner").email("owner@mail.ru").build();
+        owner.setId(jdbcUtil.insertUser(owner));
+        reader = User.builder().name("reader").email("reader@mail.ru").build();
+        reader.setId(jdbcUtil.insertUser(reader));
+        item = Item.builder().name("item").description("item").available(true).owner(owner).build();
+        item.setId(jdbcUtil.insertItem(item));
+    }
+
+    @Test
+    void getById_shouldReadFromReplica() throws Exception {
+        mockMvc.perform(get("/items/{id}", item.getId()).header("X-Sharer-User-Id", reader.getId()))
+                .andExpect(status().isNotFound());
+
+        replicate();
+
+        mockMvc.perform(get("/items/{id}", item.getId()).header("X-Sharer-User-Id", reader.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("item")));
+    }
+
+    @Test
+    void create_shouldWriteToPrimaryAndReadOwnWritesFromPrimary() throws Exception {
+        replicate();
+
+        mockMvc.perform(post("/items")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"new\",\"description\":\"new\",\"available\":true}"))
+                .andExpect(status().isOk());
+
+        assertEquals(2, jdbcTemplate.queryForObject("select count(*) from items", Integer.class));
+        assertEquals(1, replicaJdbcTemplate.queryForObject("select count(*) from items", Integer.class));
+
+        mockMvc.perform(get("/items").header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(2)));
+        mockMvc.perform(get("/items/search").param("text", "new").header("X-Sharer-User-Id", reader.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(0)));
+    }
+
+    private void replicate() {
+        replicaJdbcTemplate.update("insert into users (id, name, email) values (?, ?, ?)",
+                owner.getId(), owner.getName(), owner.getEmail());
+        replicaJdbcTemplate.update("insert into users (id, name, email) values (?, ?, ?)",
+                reader.getId(), reader.getName(), reader.getEmail());
+        replicaJdbcTemplate.update("insert into items (id, name, description, available, owner_id) " +
+                "values (?, ?, ?, ?, ?)", item.getId(), item.getName(), item.getDescription(), true, owner.getId());
+    }
+}
@@ -0,0 +1,152 @@
+package ru.practicum.shareit.integration;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.database.Booking;
+import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.integration.annotation.IT;
+import ru.practicum.shareit.item.comment.database.Comment;
+import ru.practicum.shareit.item.database.Item;
+import ru.practicum.shareit.requests.database.ItemRequest;
+import ru.practicum.shareit.user.database.User;
+import ru.practicum.shareit.util.JdbcUtil;
+import ru.practicum.shareit.util.QueryCounter;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that writes resolve associations they only need the foreign key of without loading them.
+ * Users are counted as not cached.
+ */
+@IT
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class WriteQueryCountTest {
+
+    // owner, sequence, insert
+    private static final long CREATE_ITEM_QUERIES = 3;
+
+    // author, finished booking check, sequence, insert
+    private static final long CREATE_COMMENT_QUERIES = 4;
+
+    // item with comments, booker, sequence, insert
+    private static final long CREATE_BOOKING_QUERIES = 4;
+
+    private static final long WRONG_ID = 404L;
+
+    final JdbcTemplate jdbcTemplate;
+
+    final JdbcUtil jdbcUtil;
+
+    final MockMvc mockMvc;
+
+    final QueryCounter queryCounter;
+
+    User owner;
+
+    User booker;
+
+    Item item;
+
+    ItemRequest request;
+
+    @BeforeEach
+    void clearDb() {
+        jdbcTemplate.update("delete from bookings");
+        jdbcTemplate.update("delete from comments");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from requests");
+        jdbcTemplate.update("delete from users");
+        fillDb();
+    }
+
+    @Test
+    void createItem_shouldNotLoadRequest() throws Exception {
+        queryCounter.reset();
+        mockMvc.perform(post("/items")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"new\",\"description\":\"new\",\"available\":true," +
+                                "\"requestId\":" + request.getId() + "}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requestId", is(request.getId().intValue())));
+
+        queryCounter.assertAtMost(CREATE_ITEM_QUERIES);
+    }
+
+    @Test
+    void createItem_shouldAnswer404WithWrongRequest() throws Exception {
+        mockMvc.perform(post("/items")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"new\",\"description\":\"new\",\"available\":true," +
+                                "\"requestId\":" + WRONG_ID + "}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void createComment_shouldNotLoadItem() throws Exception {
+        queryCounter.reset();
+        mockMvc.perform(post("/items/{id}/comment", item.getId())
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"text\":\"nice\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.authorName", is(booker.getName())));
+
+        queryCounter.assertAtMost(CREATE_COMMENT_QUERIES);
+    }
+
+    @Test
+    void createComment_shouldAnswer404WithWrongItem() throws Exception {
+        mockMvc.perform(post("/items/{id}/comment", WRONG_ID)
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"text\":\"nice\"}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void createBooking_shouldRunBoundedNumberOfQueries() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        queryCounter.reset();
+        mockMvc.perform(post("/bookings")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"itemId\":" + item.getId() + ",\"start\":\"" + start + "\"," +
+                                "\"end\":\"" + start.plusDays(1) + "\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.item.comments.length()", is(1)));
+
+        queryCounter.assertAtMost(CREATE_BOOKING_QUERIES);
+    }
+
+    private void fillDb() {
+        owner = User.builder().name("owner").email("owner@mail.ru").build();
+        owner.setId(jdbcUtil.insertUser(owner));
+        booker = User.builder().name("booker").email("booker@mail.ru").build();
+        booker.setId(jdbcUtil.insertUser(booker));
+        request = ItemRequest.builder().description("request").requester(booker).build();
+        request.setId(jdbcUtil.insertRequest(request));
+        item = Item.builder().name("item").description("item").available(true).owner(owner).build();
+        item.setId(jdbcUtil.insertItem(item));
+        jdbcUtil.insertComment(Comment.builder().text("comment").item(item).author(owner).build());
+        LocalDateTime now = LocalDateTime.now();
+        jdbcUtil.insertBooking(Booking.builder()
+                .startTime(now.minusDays(2))
+                .endTime(now.minusDays(1))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build());
+    }
+}
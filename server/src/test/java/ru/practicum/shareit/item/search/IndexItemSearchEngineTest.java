@@ -0,0 +1,106 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.common.OffsetLimitPageable;
+import ru.practicum.shareit.item.database.Item;
+import ru.practicum.shareit.item.database.ItemRepository;
+import ru.practicum.shareit.item.database.ItemText;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IndexItemSearchEngineTest {
+
+    @Mock
+    ItemRepository itemRepository;
+
+    @InjectMocks
+    IndexItemSearchEngine searchEngine;
+
+    @BeforeEach
+    void buildIndex() {
+        when(itemRepository.findAvailableTexts()).thenReturn(List.of(
+                new ItemText(1L, "Power drill", "Makes holes"),
+                new ItemText(2L, "Hammer", "Not a DRILL"),
+                new ItemText(3L, "Drill bits", null),
+                new ItemText(4L, "Saw", "cuts wood")));
+        searchEngine.rebuild();
+    }
+
+    @Test
+    void search_shouldReturnNameMatchesFirstThenDescriptionMatchesOrderedById() {
+        stubFindAllById();
+
+        assertEquals(List.of(1L, 3L, 2L), searchIds("dRiLl", 0, 10));
+    }
+
+    @Test
+    void search_shouldApplyOffsetAndLimit() {
+        stubFindAllById();
+
+        assertEquals(List.of(3L, 2L), searchIds("drill", 1, 2));
+        assertEquals(List.of(2L), searchIds("drill", 2, 5));
+    }
+
+    @Test
+    void search_shouldNotLoadItemsWhenNothingMatches() {
+        assertTrue(searchIds("drills", 0, 10).isEmpty());
+        assertTrue(searchIds("drill", 3, 10).isEmpty());
+
+        verify(itemRepository, never()).findAllById(anyIterable());
+    }
+
+    @Test
+    void search_shouldMatchKeywordsShorterThanTrigram() {
+        stubFindAllById();
+
+        assertEquals(List.of(1L, 4L), searchIds("w", 0, 10));
+    }
+
+    @Test
+    void search_shouldNotMatchTrigramsSpreadOverNameAndDescription() {
+        assertTrue(searchIds("drill makes", 0, 10).isEmpty());
+        assertTrue(searchIds("llmak", 0, 10).isEmpty());
+    }
+
+    @Test
+    void update_shouldReindexChangedItem() {
+        stubFindAllById();
+
+        searchEngine.update(Item.builder().id(4L).name("Drill press").description("").available(true).build());
+        searchEngine.update(Item.builder().id(1L).name("Power drill").description("").available(false).build());
+        searchEngine.update(Item.builder().id(5L).name("Jigsaw").description("cuts curves").available(true).build());
+
+        assertEquals(List.of(3L, 4L, 2L), searchIds("drill", 0, 10));
+        assertEquals(List.of(5L), searchIds("cuts", 0, 10));
+    }
+
+    private List<Long> searchIds(String keyword, int from, int size) {
+        return searchEngine.search(keyword, OffsetLimitPageable.of(from, size)).stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+    }
+
+    private void stubFindAllById() {
+        when(itemRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            Iterable<Long> ids = invocation.getArgument(0);
+            List<Item> items = new ArrayList<>();
+            ids.forEach(id -> items.add(Item.builder().id(id).build()));
+            return items;
+        });
+    }
+}
@@ -1,27 +1,27 @@
 package ru.practicum.shareit.item.service;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mapstruct.factory.Mappers;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.Pageable;
-import ru.practicum.shareit.booking.database.Booking;
+import org.springframework.dao.DataIntegrityViolationException;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.ItemBookingIndex;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.comment.database.Comment;
 import ru.practicum.shareit.item.comment.database.CommentRepository;
 import ru.practicum.shareit.item.database.Item;
 import ru.practicum.shareit.item.database.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.user.database.User;
 import ru.practicum.shareit.user.service.UserService;
 
-import java.time.LocalDateTime;
-import java.util.HashSet;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -48,7 +48,7 @@ class ItemServiceTest {
             .description("test item description")
             .available(true)
             .owner(user)
-            .bookings(new HashSet<>())
+            .bookings(new ArrayList<>())
             .build();
 
     @Mock
@@ -57,18 +57,24 @@ class ItemServiceTest {
     @Mock
     private BookingService bookingService;
 
+    @Mock
+    private ItemBookingIndex itemBookingIndex;
+
     @Mock
     private ItemRepository itemRepository;
 
     @Mock
     private CommentRepository commentRepository;
 
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+
     ItemService itemService;
 
     @BeforeEach
     void init() {
-        itemService = new ItemServiceImpl(userService, bookingService, itemRepository,
-                commentRepository, Mappers.getMapper(ItemMapper.class));
+        itemService = new ItemServiceImpl(userService, bookingService, itemBookingIndex, itemRepository,
+                commentRepository, itemSearchEngine, Mappers.getMapper(ItemMapper.class));
     }
 
     @Test
@@ -79,6 +85,8 @@ class ItemServiceTest {
         var result = itemService.getAllByUserId(USER_ID, null, null);
 
         verify(itemRepository, times(1)).findAllByOwner(eq(user), any());
+        verify(itemBookingIndex, times(1)).getLast(ITEM_ID);
+        verify(itemBookingIndex, times(1)).getNext(ITEM_ID);
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(item.getOwner(), result.get(0).getOwner());
@@ -104,15 +112,31 @@ class ItemServiceTest {
 
     @Test
     void create_shouldInvokeRepositoryAndReturnTheSame() {
-        when(itemRepository.save(any())).thenReturn(item);
+        when(itemRepository.saveAndFlush(any())).thenReturn(item);
 
         var result = itemService.create(item, anyLong());
 
-        verify(itemRepository, times(1)).save(item);
+        verify(itemRepository, times(1)).saveAndFlush(item);
         assertNotNull(result);
         assertEquals(item, result);
     }
 
+    @Test
+    void create_shouldThrowNotFoundExceptionWhenRequestDoesNotExist() {
+        when(itemRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("request_id",
+                new ConstraintViolationException("request_id", null, "FK_ITEMS_REQUEST_ID")));
+
+        assertThrows(NotFoundException.class, () -> itemService.create(item, USER_ID));
+    }
+
+    @Test
+    void create_shouldPassOtherIntegrityViolationsThrough() {
+        when(itemRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("owner_id",
+                new ConstraintViolationException("owner_id", null, "FK_ITEMS_OWNER_ID")));
+
+        assertThrows(DataIntegrityViolationException.class, () -> itemService.create(item, USER_ID));
+    }
+
     @Test
     void update_shouldThrowNotFoundExceptionWhenRepositoryReturnEmpty() {
         var itemDto = ItemDto.builder().build();
@@ -150,13 +174,12 @@ class ItemServiceTest {
     }
 
     @Test
-    void searchByKeyword_shouldInvokeRepositoryAndReturnTheSame() {
-        Page<Item> page = new PageImpl<>(List.of(item));
-        when(itemRepository.findAll(any(), (Pageable) any())).thenReturn(page);
+    void searchByKeyword_shouldInvokeSearchEngineAndReturnTheSame() {
+        when(itemSearchEngine.search(eq("test"), any())).thenReturn(List.of(item));
 
         var result = itemService.searchByKeyword("test", null, null);
 
-        verify(itemRepository, times(1)).findAll(any(), (Pageable) any());
+        verify(itemSearchEngine, times(1)).search(eq("test"), any());
 
         assertNotNull(result);
         assertEquals(1, result.size());
@@ -166,9 +189,8 @@ class ItemServiceTest {
     @Test
     void createComment_shouldInvokeRepositoryAndReturnTheSame() {
         var comment = Comment.builder().item(item).author(user).build();
-        var booking = Booking.builder().item(item).booker(user).endTime(LocalDateTime.now().minusSeconds(60)).build();
 
-        when(bookingService.getAllByBooker(anyLong(), any(), any(), any())).thenReturn(List.of(booking));
+        when(bookingService.hasFinishedBooking(USER_ID, ITEM_ID)).thenReturn(true);
         when(commentRepository.save(any())).thenAnswer(returnsFirstArg());
 
         var result = itemService.createComment(comment);
@@ -178,5 +200,26 @@ class ItemServiceTest {
         assertNotNull(result);
         assertEquals(comment, result);
     }
-}
 
+    @Test
+    void createComment_shouldThrowNotFoundExceptionWhenItemDoesNotExist() {
+        var comment = Comment.builder().item(item).author(user).build();
+
+        when(bookingService.hasFinishedBooking(USER_ID, ITEM_ID)).thenReturn(false);
+        when(itemRepository.existsById(ITEM_ID)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> itemService.createComment(comment));
+        verify(commentRepository, never()).save(any());
+    }
+
+    @Test
+    void createComment_shouldThrowValidationExceptionWithoutBooking() {
+        var comment = Comment.builder().item(item).author(user).build();
+
+        when(bookingService.hasFinishedBooking(USER_ID, ITEM_ID)).thenReturn(false);
+        when(itemRepository.existsById(ITEM_ID)).thenReturn(true);
+
+        assertThrows(ValidationException.class, () -> itemService.createComment(comment));
+        verify(commentRepository, never()).save(any());
+    }
+}
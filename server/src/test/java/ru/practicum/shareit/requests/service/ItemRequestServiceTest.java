@@ -5,8 +5,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.database.ItemRepository;
 import ru.practicum.shareit.requests.database.ItemRequest;
 import ru.practicum.shareit.requests.database.ItemRequestRepository;
 import ru.practicum.shareit.user.database.User;
@@ -29,6 +32,9 @@ class ItemRequestServiceTest {
     @Mock
     UserService userService;
 
+    @Mock
+    ItemRepository itemRepository;
+
     @InjectMocks
     ItemRequestServiceImpl itemRequestService;
 
@@ -60,7 +66,7 @@ class ItemRequestServiceTest {
 
     @Test
     void getByOwnerId_shouldThrowNotFoundExceptionWhenUserServiceThrowNotFoundException() {
-        when(userService.getById(anyLong())).thenThrow(NotFoundException.class);
+        doThrow(NotFoundException.class).when(userService).checkExists(anyLong());
 
         assertThrows(NotFoundException.class, () -> itemRequestService.getByOwnerId(WRONG_ID));
     }
@@ -76,7 +82,7 @@ class ItemRequestServiceTest {
 
     @Test
     void getById_shouldThrowNotFoundExceptionWhenUserServiceThrowNotFoundException() {
-        when(userService.getById(anyLong())).thenThrow(NotFoundException.class);
+        doThrow(NotFoundException.class).when(userService).checkExists(anyLong());
 
         assertThrows(NotFoundException.class, () -> itemRequestService.getById(REQUEST_ID, WRONG_ID));
     }
@@ -105,13 +111,13 @@ class ItemRequestServiceTest {
         verifyNoMoreInteractions(requestRepository);
     }
 
-    //TODO
-//    @Test
-//    void getAll_shouldInvokeRepositoryAndReturnTheSameWhenFromAndSizeIsNull() {
-//        when(requestRepository.findAll(anyLong(), anyLong(), anyLong())).thenReturn(List.of(itemRequest));
-//
-//        assertEquals(List.of(itemRequest), itemRequestService.getAll(null, null, USER_ID));
-//
-//        verify(requestRepository,times(1)).findAll(anyLong(), anyLong(), anyLong());
-//    }
-}
\ No newline at end of file
+    @Test
+    void getAll_shouldInvokeRepositoryAndReturnTheSameWhenFromAndSizeIsNull() {
+        Slice<ItemRequest> slice = new SliceImpl<>(List.of(itemRequest));
+        when(requestRepository.findAllByRequesterIdIsNot(eq(USER_ID), any())).thenReturn(slice);
+
+        assertEquals(slice, itemRequestService.getAll(USER_ID, null, null));
+
+        verify(requestRepository, times(1)).findAllByRequesterIdIsNot(eq(USER_ID), any());
+    }
+}
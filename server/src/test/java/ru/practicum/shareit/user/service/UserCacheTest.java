@@ -0,0 +1,111 @@
+package ru.practicum.shareit.user.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.user.database.User;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class UserCacheTest {
+
+    final TestClock clock = new TestClock();
+
+    final UserCache userCache = new UserCache(2, Duration.ofMinutes(1), clock);
+
+    @Test
+    void get_shouldReturnCopyAndCountHitsAndMisses() {
+        User user = user(1L);
+        userCache.put(user);
+        user.setName("changed");
+
+        User cached = userCache.get(1L);
+        assertNull(userCache.get(2L));
+
+        assertEquals("user1", cached.getName());
+        assertNotSame(cached, userCache.get(1L));
+        assertEquals(2, userCache.getHits());
+        assertEquals(1, userCache.getMisses());
+    }
+
+    @Test
+    void get_shouldReturnNullWhenEntryExpired() {
+        userCache.put(user(1L));
+
+        clock.advance(Duration.ofSeconds(59));
+        assertNotNull(userCache.get(1L));
+        clock.advance(Duration.ofSeconds(1));
+        assertNull(userCache.get(1L));
+        assertEquals(0, userCache.size());
+    }
+
+    @Test
+    void put_shouldDropLeastRecentlyUsedWhenFull() {
+        userCache.put(user(1L));
+        userCache.put(user(2L));
+        userCache.get(1L);
+        userCache.put(user(3L));
+
+        assertNotNull(userCache.get(1L));
+        assertNull(userCache.get(2L));
+        assertNotNull(userCache.get(3L));
+    }
+
+    @Test
+    void evict_shouldRemoveEntry() {
+        userCache.put(user(1L));
+
+        userCache.evict(1L);
+
+        assertNull(userCache.get(1L));
+    }
+
+    @Test
+    void bindTo_shouldPublishHitsMissesAndSize() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        userCache.bindTo(registry);
+        userCache.put(user(1L));
+        userCache.get(1L);
+        userCache.get(2L);
+
+        assertEquals(1, registry.get("cache.gets").tags("cache", "users", "result", "hit").functionCounter().count());
+        assertEquals(1, registry.get("cache.gets").tags("cache", "users", "result", "miss").functionCounter().count());
+        assertEquals(1, registry.get("cache.size").tags("cache", "users").gauge().value());
+    }
+
+    private static User user(Long id) {
+        return User.builder().id(id).name("user" + id).email("user" + id + "@mail.ru").build();
+    }
+
+    private static class TestClock extends Clock {
+
+        private Instant now = Instant.now();
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
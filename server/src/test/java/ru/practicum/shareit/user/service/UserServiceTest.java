@@ -14,6 +14,8 @@ import ru.practicum.shareit.user.database.User;
 import ru.practicum.shareit.user.database.UserRepository;
 import ru.practicum.shareit.user.dto.PatchUserDto;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -43,7 +45,8 @@ class UserServiceTest {
 
     @BeforeEach
     void init() {
-        userService = new UserServiceImpl(userRepository, Mappers.getMapper(UserMapper.class));
+        userService = new UserServiceImpl(userRepository, Mappers.getMapper(UserMapper.class),
+                new UserCache(100, Duration.ofMinutes(5), Clock.systemUTC()));
     }
 
     @Test
@@ -69,6 +72,42 @@ class UserServiceTest {
         assertEquals(user, result);
     }
 
+    @Test
+    void getById_shouldAnswerFromCacheOnSecondCall() {
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
+
+        userService.getById(USER_ID);
+        userService.checkExists(USER_ID);
+        var result = userService.getById(USER_ID);
+
+        verify(userRepository, times(1)).findById(USER_ID);
+        assertEquals(user, result);
+        assertEquals(user.getName(), result.getName());
+    }
+
+    @Test
+    void getById_shouldReloadUserAfterUpdate() {
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
+        when(userRepository.saveAndFlush(any())).thenAnswer(returnsFirstArg());
+
+        userService.getById(USER_ID);
+        userService.update(userDto, USER_ID);
+        var result = userService.getById(USER_ID);
+
+        verify(userRepository, times(3)).findById(USER_ID);
+        assertEquals(NEW_NAME, result.getName());
+    }
+
+    @Test
+    void getById_shouldThrowNotFoundExceptionAfterDelete() {
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user)).thenReturn(Optional.empty());
+
+        userService.getById(USER_ID);
+        userService.delete(USER_ID);
+
+        assertThrows(NotFoundException.class, () -> userService.checkExists(USER_ID));
+    }
+
     @Test
     void getById_shouldThrowNotFoundExceptionWhenRepositoryReturnEmpty() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
@@ -79,32 +118,32 @@ class UserServiceTest {
 
     @Test
     void create_shouldInvokeRepositoryAndReturnTheSame() {
-        when(userRepository.save(user)).thenReturn(user);
+        when(userRepository.saveAndFlush(user)).thenReturn(user);
 
         var result = userService.create(user);
 
-        verify(userRepository, times(1)).save(user);
+        verify(userRepository, times(1)).saveAndFlush(user);
         assertNotNull(result);
         assertEquals(user, result);
     }
 
     @Test
     void create_shouldThrowConflictExceptionWithDuplicateEmail() {
-        when(userRepository.save(any())).thenThrow(DataIntegrityViolationException.class);
+        when(userRepository.saveAndFlush(any())).thenThrow(DataIntegrityViolationException.class);
 
         assertThrows(ConflictException.class, () -> userService.create(user));
-        verify(userRepository, times(1)).save(user);
+        verify(userRepository, times(1)).saveAndFlush(user);
     }
 
     @Test
     void update_shouldGetFromRepositoryAndPatchAndSaveAndReturnSaved() {
         when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
-        when(userRepository.save(any())).thenAnswer(returnsFirstArg());
+        when(userRepository.saveAndFlush(any())).thenAnswer(returnsFirstArg());
 
         var result = userService.update(userDto, USER_ID);
 
         verify(userRepository, times(1)).findById(USER_ID);
-        verify(userRepository, times(1)).save(any());
+        verify(userRepository, times(1)).saveAndFlush(any());
         assertNotNull(result);
         assertEquals(NEW_NAME, result.getName());
     }
@@ -120,11 +159,11 @@ class UserServiceTest {
     @Test
     void update_shouldThrowConflictExceptionWithDuplicateEmail() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(userRepository.save(any())).thenThrow(DataIntegrityViolationException.class);
+        when(userRepository.saveAndFlush(any())).thenThrow(DataIntegrityViolationException.class);
 
         assertThrows(ConflictException.class, () -> userService.update(userDto, USER_ID));
         verify(userRepository, times(1)).findById(USER_ID);
-        verify(userRepository, times(1)).save(user);
+        verify(userRepository, times(1)).saveAndFlush(user);
     }
 
     @Test
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.function.Supplier;
+
+@Slf4j
+public class BenchmarkUtil {
+
+    public static final int WARMUP_ITERATIONS = 3;
+
+    public static final int MEASURE_ITERATIONS = 10;
+
+    /**
+     * Runs the task {@link #WARMUP_ITERATIONS} times, then measures {@link #MEASURE_ITERATIONS} runs.
+     *
+     * @return average time of one run in microseconds
+     */
+    public static <T> long measure(String name, Supplier<T> task) {
+        return measure(name, WARMUP_ITERATIONS, MEASURE_ITERATIONS, task);
+    }
+
+    /**
+     * Same as {@link #measure(String, Supplier)} with the given number of runs, for tasks too slow to repeat.
+     */
+    public static <T> long measure(String name, int warmupIterations, int measureIterations, Supplier<T> task) {
+        for (int i = 0; i < warmupIterations; i++) {
+            task.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < measureIterations; i++) {
+            task.get();
+        }
+        long avg = (System.nanoTime() - start) / measureIterations / 1000;
+        log.info("[benchmark] {}: {} us/op", name, avg);
+        return avg;
+    }
+}
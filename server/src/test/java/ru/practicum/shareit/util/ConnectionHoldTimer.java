@@ -0,0 +1,69 @@
+package ru.practicum.shareit.util;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures how long connections stay taken from the pool, from {@code getConnection()} to {@code close()}.
+ * Not a component, tests that need it import it.
+ */
+public class ConnectionHoldTimer implements BeanPostProcessor {
+
+    private final LongAdder heldNanos = new LongAdder();
+
+    private final LongAdder connections = new LongAdder();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource)) return bean;
+        return new DelegatingDataSource((DataSource) bean) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return timed(super.getConnection());
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return timed(super.getConnection(username, password));
+            }
+        };
+    }
+
+    public void reset() {
+        heldNanos.reset();
+        connections.reset();
+    }
+
+    public long getHeldNanos() {
+        return heldNanos.sum();
+    }
+
+    public long getConnections() {
+        return connections.sum();
+    }
+
+    private Connection timed(Connection connection) {
+        long start = System.nanoTime();
+        AtomicBoolean closed = new AtomicBoolean();
+        connections.increment();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && closed.compareAndSet(false, true)) {
+                        heldNanos.add(System.nanoTime() - start);
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
@@ -8,13 +8,16 @@ import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.database.Booking;
 import ru.practicum.shareit.booking.dto.BookingStatus;
+import ru.practicum.shareit.item.comment.database.Comment;
 import ru.practicum.shareit.item.database.Item;
 import ru.practicum.shareit.requests.database.ItemRequest;
 import ru.practicum.shareit.user.database.User;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Component
 @RequiredArgsConstructor
@@ -24,11 +27,14 @@ public class JdbcUtil {
 
     public long insertUser(User user) {
         SimpleJdbcInsert simpleJdbcInsert = new SimpleJdbcInsert(jdbcTemplate);
-        simpleJdbcInsert.withTableName("users").usingGeneratedKeyColumns("id");
+        simpleJdbcInsert.withTableName("users");
+        long id = nextId("users_seq");
         SqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("id", id)
                 .addValue("name", user.getName())
                 .addValue("email", user.getEmail());
-        return (long) simpleJdbcInsert.executeAndReturnKey(parameters);
+        simpleJdbcInsert.execute(parameters);
+        return id;
     }
 
     public User mapRowToUser(ResultSet rs, int rowNum) throws SQLException {
@@ -41,13 +47,28 @@ public class JdbcUtil {
 
     public long insertItem(Item item) {
         SimpleJdbcInsert simpleJdbcInsert = new SimpleJdbcInsert(jdbcTemplate);
-        simpleJdbcInsert.withTableName("items").usingGeneratedKeyColumns("id");
+        simpleJdbcInsert.withTableName("items");
+        long id = nextId("items_seq");
         SqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("id", id)
                 .addValue("name", item.getName())
                 .addValue("description", item.getDescription())
                 .addValue("available", item.getAvailable())
-                .addValue("owner_id", item.getOwner().getId());
-        return (long) simpleJdbcInsert.executeAndReturnKey(parameters);
+                .addValue("owner_id", item.getOwner().getId())
+                .addValue("request_id", item.getRequest() == null ? null : item.getRequest().getId());
+        simpleJdbcInsert.execute(parameters);
+        return id;
+    }
+
+    public void insertItems(List<Item> items) {
+        String sql = "insert into items (id, name, description, available, owner_id) "
+                + "values (next value for items_seq, ?, ?, ?, ?)";
+        jdbcTemplate.batchUpdate(sql, items, 1000, (ps, item) -> {
+            ps.setString(1, item.getName());
+            ps.setString(2, item.getDescription());
+            ps.setBoolean(3, item.getAvailable());
+            ps.setLong(4, item.getOwner().getId());
+        });
     }
 
     public Item mapRowToItem(ResultSet rs, int rowNum) throws SQLException {
@@ -62,14 +83,30 @@ public class JdbcUtil {
 
     public long insertBooking(Booking booking) {
         SimpleJdbcInsert simpleJdbcInsert = new SimpleJdbcInsert(jdbcTemplate);
-        simpleJdbcInsert.withTableName("bookings").usingGeneratedKeyColumns("id");
+        simpleJdbcInsert.withTableName("bookings");
+        long id = nextId("bookings_seq");
         SqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("id", id)
                 .addValue("start_time", booking.getStartTime())
                 .addValue("end_time", booking.getEndTime())
                 .addValue("item_id", booking.getItem().getId())
                 .addValue("booker_id", booking.getBooker().getId())
-                .addValue("status", booking.getStatus());
-        return (long) simpleJdbcInsert.executeAndReturnKey(parameters);
+                .addValue("status", booking.getStatus())
+                .addValue("version", 0);
+        simpleJdbcInsert.execute(parameters);
+        return id;
+    }
+
+    public void insertBookings(List<Booking> bookings) {
+        String sql = "insert into bookings (id, start_time, end_time, item_id, booker_id, status) "
+                + "values (next value for bookings_seq, ?, ?, ?, ?, ?)";
+        jdbcTemplate.batchUpdate(sql, bookings, 1000, (ps, booking) -> {
+            ps.setTimestamp(1, Timestamp.valueOf(booking.getStartTime()));
+            ps.setTimestamp(2, Timestamp.valueOf(booking.getEndTime()));
+            ps.setLong(3, booking.getItem().getId());
+            ps.setLong(4, booking.getBooker().getId());
+            ps.setString(5, booking.getStatus().toString());
+        });
     }
 
     public Booking mapRowToBooking(ResultSet rs, int rowNum) throws SQLException {
@@ -85,12 +122,29 @@ public class JdbcUtil {
 
     public long insertRequest(ItemRequest itemRequest) {
         SimpleJdbcInsert simpleJdbcInsert = new SimpleJdbcInsert(jdbcTemplate);
-        simpleJdbcInsert.withTableName("requests").usingGeneratedKeyColumns("id");
+        simpleJdbcInsert.withTableName("requests");
+        long id = nextId("requests_seq");
         SqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("id", id)
                 .addValue("description", itemRequest.getDescription())
                 .addValue("requester_id", itemRequest.getRequester().getId())
                 .addValue("created", LocalDateTime.now());
-        return (long) simpleJdbcInsert.executeAndReturnKey(parameters);
+        simpleJdbcInsert.execute(parameters);
+        return id;
+    }
+
+    public long insertComment(Comment comment) {
+        SimpleJdbcInsert simpleJdbcInsert = new SimpleJdbcInsert(jdbcTemplate);
+        simpleJdbcInsert.withTableName("comments");
+        long id = nextId("comments_seq");
+        SqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("text", comment.getText())
+                .addValue("item_id", comment.getItem().getId())
+                .addValue("author_id", comment.getAuthor().getId())
+                .addValue("created", LocalDateTime.now());
+        simpleJdbcInsert.execute(parameters);
+        return id;
     }
 
     public ItemRequest mapRowToRequest(ResultSet rs, int rowNum) throws SQLException {
@@ -101,4 +155,11 @@ public class JdbcUtil {
                 .created(rs.getTimestamp("created").toLocalDateTime())
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Entities take ids from pooled sequences, so rows inserted past Hibernate take them from there too.
+     */
+    private long nextId(String sequence) {
+        return jdbcTemplate.queryForObject("select next value for " + sequence, Long.class);
+    }
+}
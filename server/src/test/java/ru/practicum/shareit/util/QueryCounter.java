@@ -0,0 +1,38 @@
+package ru.practicum.shareit.util;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Counts SQL statements prepared by Hibernate, requires {@code hibernate.generate_statistics}.
+ * Statements run with {@link JdbcUtil} are not counted.
+ */
+@Component
+@RequiredArgsConstructor
+public class QueryCounter {
+
+    final EntityManagerFactory entityManagerFactory;
+
+    public void reset() {
+        statistics().clear();
+    }
+
+    public long count() {
+        return statistics().getPrepareStatementCount();
+    }
+
+    public void assertAtMost(long expected) {
+        long actual = count();
+        assertTrue(actual <= expected, "Expected at most " + expected + " queries, but was " + actual);
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.util;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records SQL statements prepared by Hibernate between {@link #start()} and {@link #stop()}.
+ */
+@Component
+public class SqlRecorder implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private final List<String> statements = new ArrayList<>();
+
+    private boolean recording;
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public synchronized String inspect(String sql) {
+        if (recording) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+
+    public synchronized void start() {
+        statements.clear();
+        recording = true;
+    }
+
+    public synchronized List<String> stop() {
+        recording = false;
+        return new ArrayList<>(statements);
+    }
+}